@@ -1,7 +1,11 @@
 package com.goldinventory;
 
 import com.goldinventory.database.DBConnection;
+import com.goldinventory.database.SchemaMigrations;
+import com.goldinventory.repository.UserRepository;
 import com.goldinventory.service.AuthService;
+import com.goldinventory.service.rates.FileRateFeed;
+import com.goldinventory.service.rates.RateFeedIngestor;
 import com.goldinventory.ui.LoginFrame;
 
 import javax.swing.*;
@@ -11,9 +15,9 @@ import javax.swing.event.DocumentListener;
 import java.awt.*;
 import java.awt.event.*;
 import java.awt.geom.AffineTransform;
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Executors;
@@ -22,6 +26,7 @@ import java.util.concurrent.TimeUnit;
 
 
 public class GoldInventoryManagementSystem {
+    private static final String RATES_PATH_PROPERTY = "goldinventory.rates.path";
 
     public static void main(String[] args) {
         setLookAndFeel();
@@ -35,9 +40,13 @@ public class GoldInventoryManagementSystem {
                 splash.setStatus("Checking database connectivity...");
                 try (Connection conn = DBConnection.getConnection()) {
                     if (conn == null || conn.isClosed()) return false;
+                    splash.setStatus("Updating database schema...");
+                    SchemaMigrations.apply(conn);
                 } catch (Exception e) {
+                    e.printStackTrace();
                     return false;
                 }
+                startRateFeed();
                 return true;
             }
 
@@ -49,6 +58,18 @@ public class GoldInventoryManagementSystem {
         }.execute();
     }
 
+    // Optional: -Dgoldinventory.rates.path=<file or directory> keeps prices in step with a local rate file
+    private static void startRateFeed() {
+        String path = System.getProperty(RATES_PATH_PROPERTY);
+        if (path == null || path.trim().isEmpty()) return;
+        try {
+            new RateFeedIngestor(new FileRateFeed(Paths.get(path.trim()))).start();
+        } catch (IOException | RuntimeException e) {
+            // The app runs without live rates; prices stay as last saved
+            e.printStackTrace();
+        }
+    }
+
     private static void setLookAndFeel() {
         try {
             for (UIManager.LookAndFeelInfo info : UIManager.getInstalledLookAndFeels()) {
@@ -338,23 +359,12 @@ public class GoldInventoryManagementSystem {
                     private String message = "Creating account...";
                     @Override
                     protected Boolean doInBackground() {
-                        try (Connection conn = DBConnection.getConnection()) {
-                            try (PreparedStatement check = conn.prepareStatement("SELECT user_id FROM users WHERE username = ?")) {
-                                check.setString(1, username);
-                                try (ResultSet rs = check.executeQuery()) {
-                                    if (rs.next()) {
-                                        message = "Username exists";
-                                        return false;
-                                    }
-                                }
-                            }
-                            String hashed = AuthService.hashPassword(password);
-                            try (PreparedStatement ins = conn.prepareStatement("INSERT INTO users (username, password, role) VALUES (?, ?, ?)")) {
-                                ins.setString(1, username);
-                                ins.setString(2, hashed);
-                                ins.setString(3, role);
-                                ins.executeUpdate();
+                        try {
+                            if (UserRepository.existsByUsername(username)) {
+                                message = "Username exists";
+                                return false;
                             }
+                            UserRepository.insert(username, AuthService.hashPassword(password), role);
                             return true;
                         } catch (Exception ex) {
                             message = ex.getMessage();
@@ -0,0 +1,272 @@
+package com.goldinventory.database;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded pool of physical MySQL connections.
+ * Borrowers get a proxy whose close() hands the connection back instead of closing it,
+ * so callers keep their usual try-with-resources shape.
+ */
+public class ConnectionPool {
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final long VALIDATION_SKIP_MILLIS = 500;
+    private static final long MAINTENANCE_INTERVAL_MILLIS = 30_000;
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final long borrowTimeoutMillis;
+    private final int statementCacheSize;
+    private final StatementCacheStats statementCacheStats = new StatementCacheStats();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition connectionReturned = lock.newCondition();
+    // Most recently returned connection sits at the head, so the tail is the longest idle
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private int totalCount; // idle + borrowed + currently being opened
+    private boolean closed;
+
+    private final ScheduledExecutorService maintenance;
+
+    public ConnectionPool(String url, String username, String password,
+                          int minSize, int maxSize, long idleTimeoutMillis, long borrowTimeoutMillis,
+                          int statementCacheSize) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.statementCacheSize = statementCacheSize;
+
+        maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-maintenance");
+            t.setDaemon(true);
+            return t;
+        });
+        maintenance.scheduleWithFixedDelay(this::runMaintenance,
+                0, MAINTENANCE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public Connection borrow() throws SQLException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMillis);
+        while (true) {
+            PooledConnection candidate = null;
+            lock.lock();
+            try {
+                while (candidate == null) {
+                    if (closed) throw new SQLException("Connection pool is closed");
+                    candidate = idle.pollFirst();
+                    if (candidate != null) break;
+                    if (totalCount < maxSize) {
+                        totalCount++;
+                        break;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new SQLTimeoutException("Timed out after " + borrowTimeoutMillis
+                                + " ms waiting for a database connection (pool size " + maxSize + ")");
+                    }
+                    try {
+                        connectionReturned.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a database connection", e);
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (candidate == null) {
+                return openNew().checkout();
+            }
+            if (isUsable(candidate)) {
+                return candidate.checkout();
+            }
+            discard(candidate);
+        }
+    }
+
+    public StatementCacheStats getStatementCacheStats() {
+        return statementCacheStats;
+    }
+
+    public int getTotalCount() {
+        lock.lock();
+        try {
+            return totalCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getIdleCount() {
+        lock.lock();
+        try {
+            return idle.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void close() {
+        List<PooledConnection> toClose;
+        lock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            totalCount -= idle.size();
+            idle.clear();
+            connectionReturned.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        maintenance.shutdownNow();
+        for (PooledConnection pc : toClose) {
+            pc.closePhysical();
+        }
+    }
+
+    // Called by a borrower's proxy on close()
+    void release(PooledConnection pc) {
+        boolean discard = !pc.resetForReuse();
+        lock.lock();
+        try {
+            if (closed || discard) {
+                totalCount--;
+                discard = true;
+            } else {
+                pc.markReturned();
+                idle.addFirst(pc);
+            }
+            connectionReturned.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (discard) {
+            pc.closePhysical();
+        }
+    }
+
+    // Caller must already have reserved a slot in totalCount
+    private PooledConnection openNew() throws SQLException {
+        try {
+            return new PooledConnection(this, DriverManager.getConnection(url, username, password),
+                    statementCacheSize, statementCacheStats);
+        } catch (SQLException | RuntimeException e) {
+            lock.lock();
+            try {
+                totalCount--;
+                connectionReturned.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    private boolean isUsable(PooledConnection pc) {
+        // A connection handed back a moment ago has just proven itself; skip the ping
+        if (pc.getIdleMillis() < VALIDATION_SKIP_MILLIS) return true;
+        try {
+            return pc.getPhysical().isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void discard(PooledConnection pc) {
+        lock.lock();
+        try {
+            totalCount--;
+            connectionReturned.signal();
+        } finally {
+            lock.unlock();
+        }
+        pc.closePhysical();
+    }
+
+    private void runMaintenance() {
+        try {
+            evictIdle();
+            fillToMinimum();
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void evictIdle() {
+        List<PooledConnection> evicted = new ArrayList<>();
+        lock.lock();
+        try {
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext() && totalCount > minSize) {
+                PooledConnection pc = it.next();
+                if (pc.getIdleMillis() < idleTimeoutMillis) break;
+                it.remove();
+                totalCount--;
+                evicted.add(pc);
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (PooledConnection pc : evicted) {
+            pc.closePhysical();
+        }
+    }
+
+    private void fillToMinimum() {
+        while (true) {
+            lock.lock();
+            try {
+                if (closed || totalCount >= minSize) return;
+                totalCount++;
+            } finally {
+                lock.unlock();
+            }
+            PooledConnection pc;
+            try {
+                pc = openNew();
+            } catch (SQLException e) {
+                // Database unreachable; the next borrow will surface the error
+                return;
+            }
+            pc.markReturned();
+            lock.lock();
+            try {
+                if (!closed) {
+                    idle.addLast(pc);
+                    connectionReturned.signal();
+                    continue;
+                }
+                totalCount--;
+            } finally {
+                lock.unlock();
+            }
+            pc.closePhysical();
+            return;
+        }
+    }
+}
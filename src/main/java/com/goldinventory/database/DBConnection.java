@@ -1,35 +1,49 @@
 package com.goldinventory.database;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public class DBConnection {
-    private static final String URL = "jdbc:mysql://localhost:3306/gold_inventory_db";
-    private static final String USERNAME = "root";
-    private static final String PASSWORD = "manager";
-    private static Connection connection = null;
+    // Server-side prepares so cached statements skip parse and plan on the server;
+    // batched inserts are rewritten into one multi-row INSERT
+    static final String URL = "jdbc:mysql://localhost:3306/gold_inventory_db"
+            + "?useServerPrepStmts=true&rewriteBatchedStatements=true";
+    static final String USERNAME = "root";
+    static final String PASSWORD = "manager";
 
+    private static final int POOL_MIN_SIZE = 2;
+    private static final int POOL_MAX_SIZE = 10;
+    private static final long POOL_IDLE_TIMEOUT_MILLIS = 5 * 60 * 1000;
+    private static final long POOL_BORROW_TIMEOUT_MILLIS = 10 * 1000;
+    // The application issues a small fixed set of SQL strings; this holds all of them
+    static final int STATEMENT_CACHE_SIZE = 64;
+
+    private static ConnectionPool pool = null;
+
+    // Borrow a pooled connection; closing it returns it to the pool
     public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
+        return getPool().borrow();
+    }
+
+    public static synchronized ConnectionPool getPool() throws SQLException {
+        if (pool == null) {
             try {
                 Class.forName("com.mysql.cj.jdbc.Driver");
-                connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
             } catch (ClassNotFoundException e) {
                 throw new SQLException("MySQL JDBC Driver not found", e);
             }
+            pool = new ConnectionPool(URL, USERNAME, PASSWORD,
+                    POOL_MIN_SIZE, POOL_MAX_SIZE, POOL_IDLE_TIMEOUT_MILLIS, POOL_BORROW_TIMEOUT_MILLIS,
+                    STATEMENT_CACHE_SIZE);
         }
-        return connection;
+        return pool;
     }
 
-    public static void closeConnection() {
-        if (connection != null) {
-            try {
-                connection.close();
-                connection = null;
-            } catch (SQLException e) {
-                e.printStackTrace();
-            }
+    // Closes every idle pooled connection; borrowed ones are closed as they come back
+    public static synchronized void closeConnection() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,127 @@
+package com.goldinventory.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Idempotent schema upgrades applied at startup on top of the base schema.sql.
+ * Every step checks information_schema first, so running it again is a no-op.
+ */
+public class SchemaMigrations {
+
+    public static void apply(Connection conn) throws SQLException {
+        // Change watermark for the in-memory catalog and delta refreshes
+        addColumnIfMissing(conn, "gold_items", "updated_at",
+                "TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)");
+        addIndexIfMissing(conn, "gold_items", "idx_gold_items_updated_at", "(updated_at)");
+        // Row version for optimistic admin edits
+        addColumnIfMissing(conn, "gold_items", "version", "INT NOT NULL DEFAULT 0");
+        // Deleted rows leave no updated_at behind, so deletes are recorded here
+        execute(conn, "CREATE TABLE IF NOT EXISTS gold_item_deletions ("
+                + "item_id INT PRIMARY KEY, "
+                + "deleted_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3), "
+                + "INDEX idx_gold_item_deletions_deleted_at (deleted_at))");
+        // Keyset pagination of the sales report and purchase history
+        addIndexIfMissing(conn, "sales", "idx_sales_date_id", "(sale_date, sale_id)");
+        addIndexIfMissing(conn, "sales", "idx_sales_customer_id", "(customer_id, sale_id)");
+        // Covering indexes for the analytics top-N rankings over a date range
+        addIndexIfMissing(conn, "sales", "idx_sales_date_item", "(sale_date, item_id, quantity, total_amount)");
+        addIndexIfMissing(conn, "sales", "idx_sales_date_customer", "(sale_date, customer_id, quantity, total_amount)");
+        // Cart holds: one row per session and item, expired by the reservation sweeper
+        execute(conn, "CREATE TABLE IF NOT EXISTS stock_holds ("
+                + "session_id CHAR(36) NOT NULL, "
+                + "item_id INT NOT NULL, "
+                + "customer_id INT NOT NULL, "
+                + "quantity INT NOT NULL, "
+                + "expires_at TIMESTAMP(3) NOT NULL, "
+                + "PRIMARY KEY (session_id, item_id), "
+                + "INDEX idx_stock_holds_item_expires (item_id, expires_at), "
+                + "INDEX idx_stock_holds_expires (expires_at))");
+        // Saved carts, one per customer, written behind by SavedCarts and restored at login
+        execute(conn, "CREATE TABLE IF NOT EXISTS carts ("
+                + "customer_id INT PRIMARY KEY, "
+                + "updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3))");
+        execute(conn, "CREATE TABLE IF NOT EXISTS cart_lines ("
+                + "customer_id INT NOT NULL, "
+                + "item_id INT NOT NULL, "
+                + "quantity INT NOT NULL, "
+                + "added_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3), "
+                + "PRIMARY KEY (customer_id, item_id))");
+        // Rate history per purity; the latest row not in the future is the rate in effect
+        execute(conn, "CREATE TABLE IF NOT EXISTS gold_rates ("
+                + "rate_id INT AUTO_INCREMENT PRIMARY KEY, "
+                + "purity_karat INT NOT NULL, "
+                + "rate_per_gram DECIMAL(10,2) NOT NULL, "
+                + "making_charge_per_gram DECIMAL(10,2) NOT NULL DEFAULT 0, "
+                + "effective_from TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3), "
+                + "INDEX idx_gold_rates_purity_effective (purity_karat, effective_from))");
+        // Per-day, per-purity sales totals kept up to date by checkout; filled from existing sales once
+        if (!tableExists(conn, "sales_daily_summary")) {
+            execute(conn, "CREATE TABLE sales_daily_summary ("
+                    + "sale_date DATE NOT NULL, "
+                    + "purity_karat INT NOT NULL, "
+                    + "sale_count INT NOT NULL, "
+                    + "units INT NOT NULL, "
+                    + "grams DECIMAL(14,3) NOT NULL, "
+                    + "revenue DECIMAL(14,2) NOT NULL, "
+                    + "PRIMARY KEY (sale_date, purity_karat))");
+            // Sales rows keep no weight or purity, so grams are approximated from each item's current
+            // weight. Sales of items deleted since count with 0 grams under purity 0, so the day's count
+            // and revenue still match the sales table
+            execute(conn, "INSERT INTO sales_daily_summary (sale_date, purity_karat, sale_count, units, grams, revenue) "
+                    + "SELECT s.sale_date, COALESCE(g.purity_karat, 0), COUNT(*), SUM(COALESCE(s.quantity, 1)), "
+                    + "SUM(COALESCE(g.weight_grams, 0) * COALESCE(s.quantity, 1)), SUM(s.total_amount) "
+                    + "FROM sales s LEFT JOIN gold_items g ON g.item_id = s.item_id "
+                    + "GROUP BY s.sale_date, COALESCE(g.purity_karat, 0) "
+                    + "ON DUPLICATE KEY UPDATE sale_count = VALUES(sale_count), units = VALUES(units), "
+                    + "grams = VALUES(grams), revenue = VALUES(revenue)");
+        }
+    }
+
+    private static boolean tableExists(Connection conn, String table) throws SQLException {
+        String sql = "SELECT 1 FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, table);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static void addColumnIfMissing(Connection conn, String table, String column, String definition)
+            throws SQLException {
+        String sql = "SELECT 1 FROM information_schema.COLUMNS "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = ?";
+        if (!exists(conn, sql, table, column)) {
+            execute(conn, "ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+        }
+    }
+
+    private static void addIndexIfMissing(Connection conn, String table, String index, String columns)
+            throws SQLException {
+        String sql = "SELECT 1 FROM information_schema.STATISTICS "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND INDEX_NAME = ?";
+        if (!exists(conn, sql, table, index)) {
+            execute(conn, "CREATE INDEX " + index + " ON " + table + " " + columns);
+        }
+    }
+
+    private static boolean exists(Connection conn, String sql, String table, String name) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, table);
+            stmt.setString(2, name);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static void execute(Connection conn, String ddl) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(ddl);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.goldinventory.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache of prepared statements keyed by SQL text, owned by one physical connection.
+ * Borrowers get a lease whose close() keeps the statement open for the next caller,
+ * so the fixed queries are parsed and planned on the server only once per connection.
+ * Only the borrower holding the connection touches it, so no locking is needed.
+ */
+class StatementCache {
+    private final Connection physical;
+    private final int maxSize;
+    private final StatementCacheStats stats;
+    private final LinkedHashMap<String, CachedStatement> entries;
+
+    StatementCache(Connection physical, int maxSize, StatementCacheStats stats) {
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.stats = stats;
+        this.entries = new LinkedHashMap<String, CachedStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() <= StatementCache.this.maxSize) return false;
+                StatementCache.this.stats.recordEviction();
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+    }
+
+    boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    // Returns null when the statement is already leased (same SQL used twice at once)
+    PreparedStatement lease(String sql, Connection owner) throws SQLException {
+        CachedStatement entry = entries.get(sql);
+        if (entry == null) {
+            stats.recordMiss();
+            PreparedStatement statement = physical.prepareStatement(sql);
+            try {
+                entry = new CachedStatement(sql, statement);
+            } catch (SQLException e) {
+                statement.close();
+                throw e;
+            }
+            entries.put(sql, entry);
+        } else if (entry.inUse) {
+            stats.recordMiss();
+            return null;
+        } else {
+            stats.recordHit();
+        }
+        entry.inUse = true;
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new Lease(entry, owner));
+    }
+
+    private class CachedStatement {
+        final String sql;
+        final PreparedStatement statement;
+        // Driver defaults, put back after each lease so one borrower's settings (e.g. streaming) never leak
+        private final int defaultFetchSize;
+        private final int defaultFetchDirection;
+        private final int defaultMaxRows;
+        private final int defaultQueryTimeout;
+        boolean inUse;
+        boolean evicted;
+
+        CachedStatement(String sql, PreparedStatement statement) throws SQLException {
+            this.sql = sql;
+            this.statement = statement;
+            this.defaultFetchSize = statement.getFetchSize();
+            this.defaultFetchDirection = statement.getFetchDirection();
+            this.defaultMaxRows = statement.getMaxRows();
+            this.defaultQueryTimeout = statement.getQueryTimeout();
+        }
+
+        void evict() {
+            evicted = true;
+            if (!inUse) closeQuietly();
+        }
+
+        void release() {
+            inUse = false;
+            if (evicted) {
+                closeQuietly();
+                return;
+            }
+            try {
+                statement.clearParameters();
+                statement.clearBatch();
+                if (statement.getFetchSize() != defaultFetchSize) statement.setFetchSize(defaultFetchSize);
+                if (statement.getFetchDirection() != defaultFetchDirection) statement.setFetchDirection(defaultFetchDirection);
+                if (statement.getMaxRows() != defaultMaxRows) statement.setMaxRows(defaultMaxRows);
+                if (statement.getQueryTimeout() != defaultQueryTimeout) statement.setQueryTimeout(defaultQueryTimeout);
+            } catch (SQLException e) {
+                // Unusable now, so the next lease of this SQL prepares a fresh statement
+                evicted = true;
+                entries.remove(sql);
+                stats.recordEviction();
+                closeQuietly();
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException ignored) {}
+        }
+    }
+
+    private static class Lease implements InvocationHandler {
+        private final CachedStatement entry;
+        private final Connection owner;
+        private ResultSet currentResult;
+        private boolean closed;
+
+        Lease(CachedStatement entry, Connection owner) {
+            this.entry = entry;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        if (currentResult != null) currentResult.close();
+                        entry.release();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || entry.statement.isClosed();
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + entry.statement + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement is closed");
+            }
+            Object result;
+            try {
+                result = method.invoke(entry.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof ResultSet) {
+                currentResult = (ResultSet) result;
+            }
+            return result;
+        }
+    }
+}
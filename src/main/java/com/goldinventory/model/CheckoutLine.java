@@ -0,0 +1,23 @@
+package com.goldinventory.model;
+
+/**
+ * One cart line submitted for checkout.
+ */
+public final class CheckoutLine {
+    private final int itemId;
+    private final String itemName;
+    private final int quantity;
+    private final Money lineTotal;
+
+    public CheckoutLine(int itemId, String itemName, int quantity, Money lineTotal) {
+        this.itemId = itemId;
+        this.itemName = itemName;
+        this.quantity = quantity;
+        this.lineTotal = lineTotal;
+    }
+
+    public int getItemId() { return itemId; }
+    public String getItemName() { return itemName; }
+    public int getQuantity() { return quantity; }
+    public Money getLineTotal() { return lineTotal; }
+}
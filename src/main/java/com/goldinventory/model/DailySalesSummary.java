@@ -0,0 +1,43 @@
+package com.goldinventory.model;
+
+import java.time.LocalDate;
+
+/**
+ * Row of sales_daily_summary: one day's sales of one purity.
+ */
+public final class DailySalesSummary {
+    private final LocalDate saleDate;
+    private final int purityKarat;
+    private final int saleCount;
+    private final int units;
+    private final Weight weightSold;
+    private final Money revenue;
+
+    public DailySalesSummary(LocalDate saleDate, int purityKarat, int saleCount, int units,
+                             Weight weightSold, Money revenue) {
+        this.saleDate = saleDate;
+        this.purityKarat = purityKarat;
+        this.saleCount = saleCount;
+        this.units = units;
+        this.weightSold = weightSold;
+        this.revenue = revenue;
+    }
+
+    public static DailySalesSummary empty(LocalDate saleDate, int purityKarat) {
+        return new DailySalesSummary(saleDate, purityKarat, 0, 0, Weight.ZERO, Money.ZERO);
+    }
+
+    // One more sales row of units pieces, each weighing unitWeight
+    public DailySalesSummary plusSale(int units, Weight unitWeight, Money amount) {
+        return new DailySalesSummary(saleDate, purityKarat, saleCount + 1, this.units + units,
+                weightSold.plus(unitWeight.times(units)), revenue.plus(amount));
+    }
+
+    public LocalDate getSaleDate() { return saleDate; }
+    public int getPurityKarat() { return purityKarat; }
+    // Rows in sales, one per cart line
+    public int getSaleCount() { return saleCount; }
+    public int getUnits() { return units; }
+    public Weight getWeightSold() { return weightSold; }
+    public Money getRevenue() { return revenue; }
+}
@@ -0,0 +1,63 @@
+package com.goldinventory.model;
+
+import java.util.Objects;
+
+/**
+ * Immutable row of gold_items.
+ */
+public final class GoldItem {
+    private final int itemId;
+    private final String name;
+    private final Weight weight;
+    private final int purityKarat;
+    private final Money pricePerGram;
+    private final Money totalPrice;
+    private final int quantity;
+    private final String status;
+    private final int version;
+
+    public GoldItem(int itemId, String name, Weight weight, int purityKarat,
+                    Money pricePerGram, Money totalPrice, int quantity, String status, int version) {
+        this.itemId = itemId;
+        this.name = name;
+        this.weight = weight;
+        this.purityKarat = purityKarat;
+        this.pricePerGram = pricePerGram;
+        this.totalPrice = totalPrice;
+        this.quantity = quantity;
+        this.status = status;
+        this.version = version;
+    }
+
+    public int getItemId() { return itemId; }
+    public String getName() { return name; }
+    public Weight getWeight() { return weight; }
+    public int getPurityKarat() { return purityKarat; }
+    public Money getPricePerGram() { return pricePerGram; }
+    public Money getTotalPrice() { return totalPrice; }
+    public int getQuantity() { return quantity; }
+    public String getStatus() { return status; }
+    // Incremented by every UPDATE; optimistic writes compare it
+    public int getVersion() { return version; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof GoldItem)) return false;
+        GoldItem other = (GoldItem) o;
+        return itemId == other.itemId
+                && Objects.equals(weight, other.weight)
+                && purityKarat == other.purityKarat
+                && Objects.equals(pricePerGram, other.pricePerGram)
+                && Objects.equals(totalPrice, other.totalPrice)
+                && quantity == other.quantity
+                && version == other.version
+                && Objects.equals(name, other.name)
+                && Objects.equals(status, other.status);
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(itemId);
+    }
+}
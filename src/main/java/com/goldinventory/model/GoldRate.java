@@ -0,0 +1,31 @@
+package com.goldinventory.model;
+
+import java.sql.Timestamp;
+
+/**
+ * Row of gold_rates: the rate for one purity from effectiveFrom until the next row for that purity.
+ * Making charges are per gram and added on top of the metal rate.
+ */
+public final class GoldRate {
+    private final int purityKarat;
+    private final Money ratePerGram;
+    private final Money makingChargePerGram;
+    private final Timestamp effectiveFrom;
+
+    public GoldRate(int purityKarat, Money ratePerGram, Money makingChargePerGram, Timestamp effectiveFrom) {
+        this.purityKarat = purityKarat;
+        this.ratePerGram = ratePerGram;
+        this.makingChargePerGram = makingChargePerGram;
+        this.effectiveFrom = effectiveFrom;
+    }
+
+    public int getPurityKarat() { return purityKarat; }
+    public Money getRatePerGram() { return ratePerGram; }
+    public Money getMakingChargePerGram() { return makingChargePerGram; }
+    // Null for a rate that has not been stored yet
+    public Timestamp getEffectiveFrom() { return effectiveFrom; }
+
+    public Money getPricePerGram() {
+        return ratePerGram.plus(makingChargePerGram);
+    }
+}
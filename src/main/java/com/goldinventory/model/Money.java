@@ -0,0 +1,116 @@
+package com.goldinventory.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount in rupees held as a whole number of paise. Immutable. Addition and multiplication
+ * by whole numbers are exact and overflow-checked; anything that can produce a fraction of a
+ * paisa takes an explicit RoundingMode.
+ */
+public final class Money implements Comparable<Money> {
+    public static final Money ZERO = new Money(0);
+
+    private final long paise;
+
+    private Money(long paise) {
+        this.paise = paise;
+    }
+
+    public static Money ofPaise(long paise) {
+        return paise == 0 ? ZERO : new Money(paise);
+    }
+
+    public static Money of(BigDecimal rupees, RoundingMode rounding) {
+        return ofPaise(rupees.setScale(2, rounding).movePointRight(2).longValueExact());
+    }
+
+    // User input such as "6250.5"; rounded half up to the paisa
+    public static Money parse(String rupees) {
+        return of(new BigDecimal(rupees.trim()), RoundingMode.HALF_UP);
+    }
+
+    public long getPaise() {
+        return paise;
+    }
+
+    public Money plus(Money other) {
+        return ofPaise(Math.addExact(paise, other.paise));
+    }
+
+    public Money minus(Money other) {
+        return ofPaise(Math.subtractExact(paise, other.paise));
+    }
+
+    public Money times(long factor) {
+        return ofPaise(Math.multiplyExact(paise, factor));
+    }
+
+    // this × numerator / denominator, e.g. a purity factor of 22/24
+    public Money times(long numerator, long denominator, RoundingMode rounding) {
+        return ofPaise(divide(Math.multiplyExact(paise, numerator), denominator, rounding));
+    }
+
+    // Treats this as a per-gram rate and prices the given weight
+    public Money timesWeight(Weight weight, RoundingMode rounding) {
+        return times(weight.getMilligrams(), Weight.MILLIGRAMS_PER_GRAM, rounding);
+    }
+
+    public boolean isPositive() {
+        return paise > 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(paise, 2);
+    }
+
+    // For spreadsheet cells and charts only; never compute with it
+    public double toRupees() {
+        return paise / 100.0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(paise, other.paise);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Money && ((Money) o).paise == paise);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(paise);
+    }
+
+    // Plain rupees with two decimals, e.g. "6250.50"
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    // dividend / divisor rounded with the given mode, without going through BigDecimal
+    static long divide(long dividend, long divisor, RoundingMode rounding) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) return quotient;
+        int sign = (dividend < 0) == (divisor < 0) ? 1 : -1;
+        long absRemainder = Math.abs(remainder);
+        long absDivisor = Math.abs(divisor);
+        // Compare remainder with half the divisor without overflowing
+        int half = Long.compare(absRemainder, absDivisor - absRemainder);
+        boolean awayFromZero;
+        switch (rounding) {
+            case UP: awayFromZero = true; break;
+            case DOWN: awayFromZero = false; break;
+            case CEILING: awayFromZero = sign > 0; break;
+            case FLOOR: awayFromZero = sign < 0; break;
+            case HALF_UP: awayFromZero = half >= 0; break;
+            case HALF_DOWN: awayFromZero = half > 0; break;
+            case HALF_EVEN: awayFromZero = half > 0 || (half == 0 && (quotient & 1) != 0); break;
+            default: throw new ArithmeticException("Rounding necessary");
+        }
+        return awayFromZero ? quotient + sign : quotient;
+    }
+}
@@ -0,0 +1,35 @@
+package com.goldinventory.model;
+
+import java.time.LocalDate;
+
+/**
+ * Immutable sale line joined with the name, weight and purity of the item sold.
+ */
+public final class SaleRecord {
+    private final int saleId;
+    private final int customerId;
+    private final String itemName;
+    private final Weight weight;
+    private final int purityKarat;
+    private final Money totalAmount;
+    private final LocalDate saleDate;
+
+    public SaleRecord(int saleId, int customerId, String itemName, Weight weight,
+                      int purityKarat, Money totalAmount, LocalDate saleDate) {
+        this.saleId = saleId;
+        this.customerId = customerId;
+        this.itemName = itemName;
+        this.weight = weight;
+        this.purityKarat = purityKarat;
+        this.totalAmount = totalAmount;
+        this.saleDate = saleDate;
+    }
+
+    public int getSaleId() { return saleId; }
+    public int getCustomerId() { return customerId; }
+    public String getItemName() { return itemName; }
+    public Weight getWeight() { return weight; }
+    public int getPurityKarat() { return purityKarat; }
+    public Money getTotalAmount() { return totalAmount; }
+    public LocalDate getSaleDate() { return saleDate; }
+}
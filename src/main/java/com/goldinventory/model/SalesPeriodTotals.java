@@ -0,0 +1,28 @@
+package com.goldinventory.model;
+
+import java.time.LocalDate;
+
+/**
+ * Sales totals for one day, week or month, identified by its first day.
+ */
+public final class SalesPeriodTotals {
+    private final LocalDate periodStart;
+    private final int saleCount;
+    private final int units;
+    private final Weight weightSold;
+    private final Money revenue;
+
+    public SalesPeriodTotals(LocalDate periodStart, int saleCount, int units, Weight weightSold, Money revenue) {
+        this.periodStart = periodStart;
+        this.saleCount = saleCount;
+        this.units = units;
+        this.weightSold = weightSold;
+        this.revenue = revenue;
+    }
+
+    public LocalDate getPeriodStart() { return periodStart; }
+    public int getSaleCount() { return saleCount; }
+    public int getUnits() { return units; }
+    public Weight getWeightSold() { return weightSold; }
+    public Money getRevenue() { return revenue; }
+}
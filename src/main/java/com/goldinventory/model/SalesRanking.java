@@ -0,0 +1,26 @@
+package com.goldinventory.model;
+
+/**
+ * One entry of a top-N list: an item or a customer with what it sold or bought over a range.
+ */
+public final class SalesRanking {
+    private final int id;
+    private final String label;
+    private final int saleCount;
+    private final int units;
+    private final Money revenue;
+
+    public SalesRanking(int id, String label, int saleCount, int units, Money revenue) {
+        this.id = id;
+        this.label = label;
+        this.saleCount = saleCount;
+        this.units = units;
+        this.revenue = revenue;
+    }
+
+    public int getId() { return id; }
+    public String getLabel() { return label; }
+    public int getSaleCount() { return saleCount; }
+    public int getUnits() { return units; }
+    public Money getRevenue() { return revenue; }
+}
@@ -0,0 +1,23 @@
+package com.goldinventory.model;
+
+/**
+ * A cart line asking for more units than are in stock. Available is 0 for items that no longer exist.
+ */
+public final class StockShortfall {
+    private final int itemId;
+    private final String itemName;
+    private final int requested;
+    private final int available;
+
+    public StockShortfall(int itemId, String itemName, int requested, int available) {
+        this.itemId = itemId;
+        this.itemName = itemName;
+        this.requested = requested;
+        this.available = available;
+    }
+
+    public int getItemId() { return itemId; }
+    public String getItemName() { return itemName; }
+    public int getRequested() { return requested; }
+    public int getAvailable() { return available; }
+}
@@ -0,0 +1,76 @@
+package com.goldinventory.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * A weight held as a whole number of milligrams. Immutable.
+ */
+public final class Weight implements Comparable<Weight> {
+    public static final long MILLIGRAMS_PER_GRAM = 1_000;
+    public static final Weight ZERO = new Weight(0);
+
+    private final long milligrams;
+
+    private Weight(long milligrams) {
+        this.milligrams = milligrams;
+    }
+
+    public static Weight ofMilligrams(long milligrams) {
+        return milligrams == 0 ? ZERO : new Weight(milligrams);
+    }
+
+    // User input in grams such as "12.5"; rounded half up to the milligram
+    public static Weight parseGrams(String grams) {
+        return ofMilligrams(new BigDecimal(grams.trim()).setScale(3, RoundingMode.HALF_UP)
+                .movePointRight(3).longValueExact());
+    }
+
+    public long getMilligrams() {
+        return milligrams;
+    }
+
+    public Weight plus(Weight other) {
+        return ofMilligrams(Math.addExact(milligrams, other.milligrams));
+    }
+
+    public Weight times(long factor) {
+        return ofMilligrams(Math.multiplyExact(milligrams, factor));
+    }
+
+    public boolean isPositive() {
+        return milligrams > 0;
+    }
+
+    public BigDecimal toGrams() {
+        return BigDecimal.valueOf(milligrams, 3);
+    }
+
+    // For spreadsheet cells and charts only; never compute with it
+    public double toGramsDouble() {
+        return milligrams / (double) MILLIGRAMS_PER_GRAM;
+    }
+
+    @Override
+    public int compareTo(Weight other) {
+        return Long.compare(milligrams, other.milligrams);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof Weight && ((Weight) o).milligrams == milligrams);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(milligrams);
+    }
+
+    // Grams without trailing zeros, e.g. "12.5"
+    @Override
+    public String toString() {
+        return milligrams % MILLIGRAMS_PER_GRAM == 0
+                ? Long.toString(milligrams / MILLIGRAMS_PER_GRAM)
+                : toGrams().stripTrailingZeros().toPlainString();
+    }
+}
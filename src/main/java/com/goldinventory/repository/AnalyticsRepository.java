@@ -0,0 +1,97 @@
+package com.goldinventory.repository;
+
+import com.goldinventory.database.DBConnection;
+import com.goldinventory.model.Money;
+import com.goldinventory.model.SalesPeriodTotals;
+import com.goldinventory.model.SalesRanking;
+import com.goldinventory.model.Weight;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Set-based aggregate queries for the analytics tab. Period totals roll up sales_daily_summary;
+ * rankings group the sales rows themselves, through the covering (sale_date, ...) indexes.
+ * All ranges are from <= sale_date < toExclusive.
+ */
+public class AnalyticsRepository {
+
+    public enum Granularity {
+        // Each maps sale_date to the first day of its period; weeks start on Monday
+        DAY("sale_date"),
+        WEEK("DATE_SUB(sale_date, INTERVAL WEEKDAY(sale_date) DAY)"),
+        MONTH("DATE_SUB(sale_date, INTERVAL DAYOFMONTH(sale_date) - 1 DAY)");
+
+        private final String periodStart;
+
+        Granularity(String periodStart) {
+            this.periodStart = periodStart;
+        }
+    }
+
+    private static final String TOP_ITEMS =
+            "SELECT t.item_id, COALESCE(g.name, CONCAT('Item #', t.item_id)), t.sale_count, t.units, ROUND(t.revenue * 100) "
+            + "FROM (SELECT item_id, COUNT(*) AS sale_count, SUM(COALESCE(quantity, 1)) AS units, SUM(total_amount) AS revenue "
+            + "FROM sales WHERE sale_date >= ? AND sale_date < ? GROUP BY item_id ORDER BY revenue DESC LIMIT ?) t "
+            + "LEFT JOIN gold_items g ON g.item_id = t.item_id ORDER BY t.revenue DESC, t.item_id";
+    private static final String TOP_CUSTOMERS =
+            "SELECT t.customer_id, COALESCE(u.username, CONCAT('Customer #', t.customer_id)), t.sale_count, t.units, "
+            + "ROUND(t.revenue * 100) "
+            + "FROM (SELECT customer_id, COUNT(*) AS sale_count, SUM(COALESCE(quantity, 1)) AS units, SUM(total_amount) AS revenue "
+            + "FROM sales WHERE sale_date >= ? AND sale_date < ? GROUP BY customer_id ORDER BY revenue DESC LIMIT ?) t "
+            + "LEFT JOIN users u ON u.user_id = t.customer_id ORDER BY t.revenue DESC, t.customer_id";
+
+    // One row per period with sales, in date order
+    public static List<SalesPeriodTotals> totalsByPeriod(LocalDate from, LocalDate toExclusive, Granularity granularity)
+            throws SQLException {
+        String sql = "SELECT " + granularity.periodStart + " AS period_start, SUM(sale_count), SUM(units), "
+                + "ROUND(SUM(grams) * 1000), ROUND(SUM(revenue) * 100) FROM sales_daily_summary "
+                + "WHERE sale_date >= ? AND sale_date < ? GROUP BY period_start ORDER BY period_start";
+        List<SalesPeriodTotals> periods = new ArrayList<>();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setDate(1, Date.valueOf(from));
+            stmt.setDate(2, Date.valueOf(toExclusive));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    periods.add(new SalesPeriodTotals(rs.getDate(1).toLocalDate(), rs.getInt(2), rs.getInt(3),
+                            Weight.ofMilligrams(rs.getLong(4)), Money.ofPaise(rs.getLong(5))));
+                }
+            }
+        }
+        return periods;
+    }
+
+    // Highest revenue first; items deleted since are labelled by id
+    public static List<SalesRanking> topItems(LocalDate from, LocalDate toExclusive, int limit) throws SQLException {
+        return ranking(TOP_ITEMS, from, toExclusive, limit);
+    }
+
+    public static List<SalesRanking> topCustomers(LocalDate from, LocalDate toExclusive, int limit) throws SQLException {
+        return ranking(TOP_CUSTOMERS, from, toExclusive, limit);
+    }
+
+    private static List<SalesRanking> ranking(String sql, LocalDate from, LocalDate toExclusive, int limit)
+            throws SQLException {
+        List<SalesRanking> rankings = new ArrayList<>();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setDate(1, Date.valueOf(from));
+            stmt.setDate(2, Date.valueOf(toExclusive));
+            stmt.setInt(3, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rankings.add(new SalesRanking(rs.getInt(1), rs.getString(2), rs.getInt(3), rs.getInt(4),
+                            Money.ofPaise(rs.getLong(5))));
+                }
+            }
+        }
+        return rankings;
+    }
+}
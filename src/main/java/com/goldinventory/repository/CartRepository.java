@@ -0,0 +1,104 @@
+package com.goldinventory.repository;
+
+import com.goldinventory.database.DBConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * All SQL against carts and cart_lines: one saved cart per customer, one line per item in it.
+ */
+public class CartRepository {
+    private static final String FIND_LINES =
+            "SELECT item_id, quantity FROM cart_lines WHERE customer_id = ? ORDER BY added_at, item_id";
+    private static final String TOUCH_CART =
+            "INSERT INTO carts (customer_id) VALUES (?) ON DUPLICATE KEY UPDATE updated_at = NOW(3)";
+    private static final String UPSERT_LINE =
+            "INSERT INTO cart_lines (customer_id, item_id, quantity) VALUES (?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE quantity = VALUES(quantity)";
+    private static final String DELETE_ALL_LINES =
+            "DELETE FROM cart_lines WHERE customer_id = ?";
+
+    // item_id to quantity, in the order the items were first added
+    public static Map<Integer, Integer> findLines(int customerId) throws SQLException {
+        Map<Integer, Integer> lines = new LinkedHashMap<>();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(FIND_LINES)) {
+            stmt.setInt(1, customerId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    lines.put(rs.getInt(1), rs.getInt(2));
+                }
+            }
+        }
+        return lines;
+    }
+
+    // Applies a batch of changes in one transaction: the lines are emptied first if clearFirst, then
+    // each item is set to its quantity, and a quantity of 0 removes the line. Items are written in
+    // item_id order so two terminals saving the same cart take row locks in the same order
+    public static void save(int customerId, boolean clearFirst, SortedMap<Integer, Integer> quantities)
+            throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement stmt = conn.prepareStatement(TOUCH_CART)) {
+                    stmt.setInt(1, customerId);
+                    stmt.executeUpdate();
+                }
+                if (clearFirst) {
+                    try (PreparedStatement stmt = conn.prepareStatement(DELETE_ALL_LINES)) {
+                        stmt.setInt(1, customerId);
+                        stmt.executeUpdate();
+                    }
+                }
+                List<Integer> removed = new ArrayList<>();
+                try (PreparedStatement stmt = conn.prepareStatement(UPSERT_LINE)) {
+                    boolean batched = false;
+                    for (Map.Entry<Integer, Integer> line : quantities.entrySet()) {
+                        if (line.getValue() <= 0) {
+                            removed.add(line.getKey());
+                            continue;
+                        }
+                        stmt.setInt(1, customerId);
+                        stmt.setInt(2, line.getKey());
+                        stmt.setInt(3, line.getValue());
+                        stmt.addBatch();
+                        batched = true;
+                    }
+                    if (batched) stmt.executeBatch();
+                }
+                deleteLines(conn, customerId, removed);
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    // Part of the caller's transaction, e.g. checkout taking the purchased items out of the saved cart
+    public static void deleteLines(Connection conn, int customerId, Collection<Integer> itemIds) throws SQLException {
+        if (itemIds.isEmpty()) return;
+        String sql = "DELETE FROM cart_lines WHERE customer_id = ? AND item_id IN ("
+                + GoldItemRepository.placeholders(itemIds.size()) + ")";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, customerId);
+            int index = 2;
+            for (int itemId : itemIds) {
+                stmt.setInt(index++, itemId);
+            }
+            stmt.executeUpdate();
+        }
+    }
+}
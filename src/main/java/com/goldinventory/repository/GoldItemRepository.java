@@ -0,0 +1,311 @@
+package com.goldinventory.repository;
+
+import com.goldinventory.database.DBConnection;
+import com.goldinventory.model.CheckoutLine;
+import com.goldinventory.model.GoldItem;
+import com.goldinventory.model.Money;
+import com.goldinventory.model.Weight;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * All SQL against gold_items. Rows are read by column position, matching ITEM_COLUMNS,
+ * so no label lookup happens per row. Weights come back as whole milligrams and prices as
+ * whole paise, so no floating-point value ever reaches the model.
+ */
+public class GoldItemRepository {
+    private static final String ITEM_COLUMNS =
+            "item_id, name, ROUND(weight_grams * 1000), purity_karat, ROUND(price_per_gram * 100), "
+            + "ROUND(total_price * 100), quantity, status, version";
+
+    private static final String SELECT_ALL =
+            "SELECT " + ITEM_COLUMNS + " FROM gold_items ORDER BY item_id";
+    private static final String SELECT_UPDATED_SINCE =
+            "SELECT " + ITEM_COLUMNS + " FROM gold_items WHERE updated_at >= ?";
+    private static final String SELECT_DELETED_SINCE =
+            "SELECT item_id FROM gold_item_deletions WHERE deleted_at >= ?";
+    private static final String SELECT_SERVER_TIME =
+            "SELECT CURRENT_TIMESTAMP(3)";
+    private static final String INSERT =
+            "INSERT INTO gold_items (name, weight_grams, purity_karat, price_per_gram, total_price, quantity, status) "
+            + "VALUES (?, ?, ?, ?, ?, ?, 'available')";
+    private static final String UPDATE =
+            "UPDATE gold_items SET name = ?, weight_grams = ?, purity_karat = ?, price_per_gram = ?, "
+            + "total_price = ?, quantity = ?, version = version + 1 WHERE item_id = ? AND version = ?";
+    private static final String DELETE =
+            "DELETE FROM gold_items WHERE item_id = ?";
+    private static final String RECORD_DELETION =
+            "INSERT INTO gold_item_deletions (item_id) VALUES (?) "
+            + "ON DUPLICATE KEY UPDATE deleted_at = CURRENT_TIMESTAMP(3)";
+    private static final String DECREMENT_STOCK =
+            "UPDATE gold_items SET quantity = quantity - ?, version = version + 1 WHERE item_id = ? AND quantity >= ?";
+    private static final String SELECT_PURITIES =
+            "SELECT DISTINCT purity_karat FROM gold_items";
+    private static final String SELECT_CHUNK_END =
+            "SELECT item_id FROM gold_items WHERE item_id > ? ORDER BY item_id LIMIT 1 OFFSET ?";
+
+    public static List<GoldItem> findAll() throws SQLException {
+        return query(SELECT_ALL);
+    }
+
+    // Rows that no longer exist are simply absent from the result
+    public static List<GoldItem> findByIds(Collection<Integer> itemIds) throws SQLException {
+        if (itemIds.isEmpty()) return new ArrayList<>();
+        String sql = "SELECT " + ITEM_COLUMNS + " FROM gold_items WHERE item_id IN (" + placeholders(itemIds.size()) + ")";
+        List<GoldItem> items = new ArrayList<>();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            for (int itemId : itemIds) {
+                stmt.setInt(index++, itemId);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    items.add(mapItem(rs));
+                }
+            }
+        }
+        return items;
+    }
+
+    // Takes row locks held until the caller's transaction ends, in item_id order so concurrent
+    // checkouts cannot deadlock; ids absent from the result no longer exist
+    public static Map<Integer, GoldItem> lockItems(Connection conn, Collection<Integer> itemIds) throws SQLException {
+        Map<Integer, GoldItem> items = new HashMap<>();
+        if (itemIds.isEmpty()) return items;
+        String sql = "SELECT " + ITEM_COLUMNS + " FROM gold_items WHERE item_id IN (" + placeholders(itemIds.size())
+                + ") ORDER BY item_id FOR UPDATE";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            for (int itemId : itemIds) {
+                stmt.setInt(index++, itemId);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    GoldItem item = mapItem(rs);
+                    items.put(item.getItemId(), item);
+                }
+            }
+        }
+        return items;
+    }
+
+    public static List<GoldItem> findUpdatedSince(Timestamp since) throws SQLException {
+        List<GoldItem> items = new ArrayList<>();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_UPDATED_SINCE)) {
+            stmt.setTimestamp(1, since);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    items.add(mapItem(rs));
+                }
+            }
+        }
+        return items;
+    }
+
+    public static List<Integer> findDeletedSince(Timestamp since) throws SQLException {
+        List<Integer> itemIds = new ArrayList<>();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_DELETED_SINCE)) {
+            stmt.setTimestamp(1, since);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    itemIds.add(rs.getInt(1));
+                }
+            }
+        }
+        return itemIds;
+    }
+
+    // Watermarks are taken from the database clock so terminals with skewed clocks agree
+    public static Timestamp currentServerTime() throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_SERVER_TIME);
+             ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+            return rs.getTimestamp(1);
+        }
+    }
+
+    // Returns the generated item_id
+    public static int insert(String name, Weight weight, int purityKarat,
+                             Money pricePerGram, Money totalPrice, int quantity) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setString(1, name);
+            stmt.setBigDecimal(2, weight.toGrams());
+            stmt.setInt(3, purityKarat);
+            stmt.setBigDecimal(4, pricePerGram.toBigDecimal());
+            stmt.setBigDecimal(5, totalPrice.toBigDecimal());
+            stmt.setInt(6, quantity);
+            stmt.executeUpdate();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                return keys.next() ? keys.getInt(1) : 0;
+            }
+        }
+    }
+
+    // Optimistic: returns 0 when the row is gone or no longer at expectedVersion
+    public static int update(int itemId, String name, Weight weight, int purityKarat,
+                             Money pricePerGram, Money totalPrice, int quantity, int expectedVersion)
+            throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(UPDATE)) {
+            stmt.setString(1, name);
+            stmt.setBigDecimal(2, weight.toGrams());
+            stmt.setInt(3, purityKarat);
+            stmt.setBigDecimal(4, pricePerGram.toBigDecimal());
+            stmt.setBigDecimal(5, totalPrice.toBigDecimal());
+            stmt.setInt(6, quantity);
+            stmt.setInt(7, itemId);
+            stmt.setInt(8, expectedVersion);
+            return stmt.executeUpdate();
+        }
+    }
+
+    // Also records a tombstone so other terminals' catalogs notice the delete
+    public static int delete(int itemId) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement delete = conn.prepareStatement(DELETE);
+                 PreparedStatement tombstone = conn.prepareStatement(RECORD_DELETION)) {
+                delete.setInt(1, itemId);
+                int rows = delete.executeUpdate();
+                if (rows > 0) {
+                    tombstone.setInt(1, itemId);
+                    tombstone.executeUpdate();
+                }
+                conn.commit();
+                return rows;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    // Part of the caller's transaction; sent as one batch. Each count is 0 where stock is
+    // insufficient or the item is gone, in the order of lines
+    public static int[] decrementStock(Connection conn, List<CheckoutLine> lines) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(DECREMENT_STOCK)) {
+            for (CheckoutLine line : lines) {
+                stmt.setInt(1, line.getQuantity());
+                stmt.setInt(2, line.getItemId());
+                stmt.setInt(3, line.getQuantity());
+                stmt.addBatch();
+            }
+            return stmt.executeBatch();
+        }
+    }
+
+    public static List<Integer> findPurities() throws SQLException {
+        List<Integer> purities = new ArrayList<>();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_PURITIES);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                purities.add(rs.getInt(1));
+            }
+        }
+        return purities;
+    }
+
+    // The item_id closing a chunk of chunkSize rows after afterId, walked on the primary key;
+    // null when fewer rows than that remain
+    public static Integer findChunkEnd(int afterId, int chunkSize) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_CHUNK_END)) {
+            stmt.setInt(1, afterId);
+            stmt.setInt(2, chunkSize - 1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : null;
+            }
+        }
+    }
+
+    // Sets price_per_gram from the purity's price and recomputes total_price for afterId < item_id <= upToId,
+    // in one statement committed on its own so row locks last only as long as the chunk. Rows already at
+    // their price are left alone and keep their version. Changed rows move updated_at like any other
+    // write, so catalogs re-read them rather than working the new prices out for themselves.
+    // Returns the rows changed.
+    public static int repriceRange(int afterId, int upToId, Map<Integer, Money> pricePerGramByPurity)
+            throws SQLException {
+        if (pricePerGramByPurity.isEmpty()) return 0;
+        StringBuilder price = new StringBuilder("CASE purity_karat");
+        for (int i = 0; i < pricePerGramByPurity.size(); i++) {
+            price.append(" WHEN ? THEN ?");
+        }
+        price.append(" END");
+        // MySQL applies single-table SET clauses left to right, so total_price sees the new price_per_gram
+        String sql = "UPDATE gold_items SET price_per_gram = " + price
+                + ", total_price = ROUND(weight_grams * price_per_gram, 2), version = version + 1"
+                + " WHERE item_id > ? AND item_id <= ? AND purity_karat IN ("
+                + placeholders(pricePerGramByPurity.size()) + ") AND price_per_gram <> " + price;
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = bindPrices(stmt, 1, pricePerGramByPurity);
+            stmt.setInt(index++, afterId);
+            stmt.setInt(index++, upToId);
+            for (int purity : pricePerGramByPurity.keySet()) {
+                stmt.setInt(index++, purity);
+            }
+            bindPrices(stmt, index, pricePerGramByPurity);
+            return stmt.executeUpdate();
+        }
+    }
+
+    private static int bindPrices(PreparedStatement stmt, int index, Map<Integer, Money> pricePerGramByPurity)
+            throws SQLException {
+        for (Map.Entry<Integer, Money> entry : pricePerGramByPurity.entrySet()) {
+            stmt.setInt(index++, entry.getKey());
+            stmt.setBigDecimal(index++, entry.getValue().toBigDecimal());
+        }
+        return index;
+    }
+
+    static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            sb.append(i == 0 ? "?" : ", ?");
+        }
+        return sb.toString();
+    }
+
+    private static List<GoldItem> query(String sql) throws SQLException {
+        List<GoldItem> items = new ArrayList<>();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                items.add(mapItem(rs));
+            }
+        }
+        return items;
+    }
+
+    static GoldItem mapItem(ResultSet rs) throws SQLException {
+        return new GoldItem(
+                rs.getInt(1),
+                rs.getString(2),
+                Weight.ofMilligrams(rs.getLong(3)),
+                rs.getInt(4),
+                Money.ofPaise(rs.getLong(5)),
+                Money.ofPaise(rs.getLong(6)),
+                rs.getInt(7),
+                rs.getString(8),
+                rs.getInt(9));
+    }
+}
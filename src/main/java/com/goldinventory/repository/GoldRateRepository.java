@@ -0,0 +1,68 @@
+package com.goldinventory.repository;
+
+import com.goldinventory.database.DBConnection;
+import com.goldinventory.model.GoldRate;
+import com.goldinventory.model.Money;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * All SQL against gold_rates. Rates are never updated in place; a new rate is a new row, so the
+ * table doubles as the rate history.
+ */
+public class GoldRateRepository {
+    private static final String INSERT =
+            "INSERT INTO gold_rates (purity_karat, rate_per_gram, making_charge_per_gram, effective_from) "
+            + "VALUES (?, ?, ?, NOW(3))";
+    private static final String SELECT_CURRENT =
+            "SELECT r.purity_karat, ROUND(r.rate_per_gram * 100), ROUND(r.making_charge_per_gram * 100), r.effective_from "
+            + "FROM gold_rates r JOIN (SELECT purity_karat, MAX(effective_from) AS effective_from FROM gold_rates "
+            + "WHERE effective_from <= NOW(3) GROUP BY purity_karat) c "
+            + "ON c.purity_karat = r.purity_karat AND c.effective_from = r.effective_from";
+    private static final String SELECT_LATEST_ID =
+            "SELECT COALESCE(MAX(rate_id), 0) FROM gold_rates";
+
+    // Stores the rates as one batch, effective from now on the server clock
+    public static void insertAll(List<GoldRate> rates) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(INSERT)) {
+            for (GoldRate rate : rates) {
+                stmt.setInt(1, rate.getPurityKarat());
+                stmt.setBigDecimal(2, rate.getRatePerGram().toBigDecimal());
+                stmt.setBigDecimal(3, rate.getMakingChargePerGram().toBigDecimal());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    // Changes whenever rates are stored; cheap enough to poll every second
+    public static int findLatestId() throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_LATEST_ID);
+             ResultSet rs = stmt.executeQuery()) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    // The rate in effect now for each purity that has one, keyed by karat
+    public static Map<Integer, GoldRate> findCurrent() throws SQLException {
+        Map<Integer, GoldRate> rates = new TreeMap<>();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_CURRENT);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                rates.put(rs.getInt(1), new GoldRate(rs.getInt(1), Money.ofPaise(rs.getLong(2)),
+                        Money.ofPaise(rs.getLong(3)), rs.getTimestamp(4)));
+            }
+        }
+        return rates;
+    }
+}
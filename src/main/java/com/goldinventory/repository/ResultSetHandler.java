@@ -0,0 +1,13 @@
+package com.goldinventory.repository;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Reads the current row straight from a streaming result set, for exporters that format
+ * columns themselves instead of mapping each row to a model object.
+ */
+public interface ResultSetHandler {
+    void handle(ResultSet row) throws SQLException, IOException;
+}
@@ -0,0 +1,10 @@
+package com.goldinventory.repository;
+
+import java.io.IOException;
+
+/**
+ * Receives rows one at a time from a streaming repository query.
+ */
+public interface RowHandler<T> {
+    void handle(T row) throws IOException;
+}
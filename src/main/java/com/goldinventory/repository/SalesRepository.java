@@ -0,0 +1,198 @@
+package com.goldinventory.repository;
+
+import com.goldinventory.database.DBConnection;
+import com.goldinventory.model.CheckoutLine;
+import com.goldinventory.model.Money;
+import com.goldinventory.model.Weight;
+import com.goldinventory.model.SaleRecord;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * All SQL against sales. Rows are read by column position, matching SALE_COLUMNS.
+ * Weights are read as whole milligrams and amounts as whole paise.
+ * Items are LEFT JOINed, so a sale outlives its item and the counts and offsets, which read sales
+ * alone, always agree with the pages.
+ */
+public class SalesRepository {
+    private static final String DELETED_ITEM_NAME = "(deleted item)";
+    private static final String SALE_COLUMNS =
+            "s.sale_id, s.customer_id, COALESCE(g.name, '" + DELETED_ITEM_NAME + "'), "
+            + "COALESCE(ROUND(g.weight_grams * 1000), 0), COALESCE(g.purity_karat, 0), "
+            + "ROUND(s.total_amount * 100), s.sale_date";
+
+    private static final String SELECT_BY_DATE =
+            "SELECT " + SALE_COLUMNS + " FROM sales s LEFT JOIN gold_items g ON s.item_id = g.item_id "
+            + "WHERE s.sale_date = ? ORDER BY s.sale_id";
+    private static final String SELECT_BY_DATE_RANGE =
+            "SELECT " + SALE_COLUMNS + " FROM sales s LEFT JOIN gold_items g ON s.item_id = g.item_id "
+            + "WHERE s.sale_date >= ? AND s.sale_date < ? ORDER BY s.sale_date, s.sale_id";
+    private static final String PAGE_BY_DATE =
+            "SELECT " + SALE_COLUMNS + " FROM sales s LEFT JOIN gold_items g ON s.item_id = g.item_id "
+            + "WHERE s.sale_date = ? AND s.sale_id > ? ORDER BY s.sale_id LIMIT ?";
+    private static final String COUNT_BY_DATE =
+            "SELECT COUNT(*) FROM sales WHERE sale_date = ?";
+    private static final String COUNT_BY_DATE_RANGE =
+            "SELECT COUNT(*) FROM sales WHERE sale_date >= ? AND sale_date < ?";
+    private static final String KEY_AT_OFFSET_BY_DATE =
+            "SELECT sale_id FROM sales WHERE sale_date = ? ORDER BY sale_id LIMIT 1 OFFSET ?";
+    private static final String PAGE_BY_CUSTOMER =
+            "SELECT " + SALE_COLUMNS + " FROM sales s LEFT JOIN gold_items g ON s.item_id = g.item_id "
+            + "WHERE s.customer_id = ? AND s.sale_id < ? ORDER BY s.sale_id DESC LIMIT ?";
+    private static final String COUNT_BY_CUSTOMER =
+            "SELECT COUNT(*) FROM sales WHERE customer_id = ?";
+    private static final String KEY_AT_OFFSET_BY_CUSTOMER =
+            "SELECT sale_id FROM sales WHERE customer_id = ? ORDER BY sale_id DESC LIMIT 1 OFFSET ?";
+    private static final String INSERT =
+            "INSERT INTO sales (customer_id, item_id, sale_date, total_amount, quantity) VALUES (?, ?, ?, ?, ?)";
+
+    // Sales with from <= sale_date < toExclusive
+    public static int countByDateRange(LocalDate from, LocalDate toExclusive) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(COUNT_BY_DATE_RANGE)) {
+            stmt.setDate(1, Date.valueOf(from));
+            stmt.setDate(2, Date.valueOf(toExclusive));
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    // Streams one day's sales row by row without buffering the result set; returns the row count
+    public static int forEachByDate(LocalDate saleDate, RowHandler<SaleRecord> handler) throws SQLException, IOException {
+        int count = 0;
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_BY_DATE)) {
+            stmt.setFetchSize(Integer.MIN_VALUE); // Connector/J: stream rows instead of reading them all
+            stmt.setDate(1, Date.valueOf(saleDate));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    handler.handle(mapSale(rs));
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    // Streams sales with from <= sale_date < toExclusive in (sale_date, sale_id) order over one connection
+    public static long forEachBetween(LocalDate from, LocalDate toExclusive, RowHandler<SaleRecord> handler)
+            throws SQLException, IOException {
+        return forEachRowBetween(from, toExclusive, rs -> handler.handle(mapSale(rs)));
+    }
+
+    // Streams raw rows with from <= sale_date < toExclusive in (sale_date, sale_id) order; columns follow SALE_COLUMNS
+    public static long forEachRowBetween(LocalDate from, LocalDate toExclusive, ResultSetHandler handler)
+            throws SQLException, IOException {
+        long count = 0;
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_BY_DATE_RANGE)) {
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            stmt.setDate(1, Date.valueOf(from));
+            stmt.setDate(2, Date.valueOf(toExclusive));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    handler.handle(rs);
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    // Keyset page of one day's sales in sale_id order; pass 0 for the first page
+    public static List<SaleRecord> findPageByDate(LocalDate saleDate, int afterSaleId, int limit) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(PAGE_BY_DATE)) {
+            stmt.setDate(1, Date.valueOf(saleDate));
+            stmt.setInt(2, afterSaleId);
+            stmt.setInt(3, limit);
+            return query(stmt);
+        }
+    }
+
+    public static int countByDate(LocalDate saleDate) throws SQLException {
+        return queryInt(COUNT_BY_DATE, Date.valueOf(saleDate), -1);
+    }
+
+    public static int saleIdAtOffsetByDate(LocalDate saleDate, int offset) throws SQLException {
+        return queryInt(KEY_AT_OFFSET_BY_DATE, Date.valueOf(saleDate), offset);
+    }
+
+    // Keyset page of a customer's sales, newest first; pass Integer.MAX_VALUE for the first page
+    public static List<SaleRecord> findPageByCustomer(int customerId, int beforeSaleId, int limit) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(PAGE_BY_CUSTOMER)) {
+            stmt.setInt(1, customerId);
+            stmt.setInt(2, beforeSaleId);
+            stmt.setInt(3, limit);
+            return query(stmt);
+        }
+    }
+
+    public static int countByCustomer(int customerId) throws SQLException {
+        return queryInt(COUNT_BY_CUSTOMER, customerId, -1);
+    }
+
+    public static int saleIdAtOffsetByCustomer(int customerId, int offset) throws SQLException {
+        return queryInt(KEY_AT_OFFSET_BY_CUSTOMER, customerId, offset);
+    }
+
+    // Part of the caller's transaction; rewritten by the driver into a single multi-row INSERT
+    public static void insertAll(Connection conn, int customerId, LocalDate saleDate, List<CheckoutLine> lines)
+            throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(INSERT)) {
+            Date date = Date.valueOf(saleDate);
+            for (CheckoutLine line : lines) {
+                stmt.setInt(1, customerId);
+                stmt.setInt(2, line.getItemId());
+                stmt.setDate(3, date);
+                stmt.setBigDecimal(4, line.getLineTotal().toBigDecimal());
+                stmt.setInt(5, line.getQuantity());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    private static List<SaleRecord> query(PreparedStatement stmt) throws SQLException {
+        List<SaleRecord> sales = new ArrayList<>();
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                sales.add(mapSale(rs));
+            }
+        }
+        return sales;
+    }
+
+    // Single int result; offset is bound as the second parameter when not negative
+    private static int queryInt(String sql, Object filter, int offset) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setObject(1, filter);
+            if (offset >= 0) stmt.setInt(2, offset);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    static SaleRecord mapSale(ResultSet rs) throws SQLException {
+        return new SaleRecord(
+                rs.getInt(1),
+                rs.getInt(2),
+                rs.getString(3),
+                Weight.ofMilligrams(rs.getLong(4)),
+                rs.getInt(5),
+                Money.ofPaise(rs.getLong(6)),
+                rs.getDate(7).toLocalDate());
+    }
+}
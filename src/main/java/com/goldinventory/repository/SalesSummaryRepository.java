@@ -0,0 +1,54 @@
+package com.goldinventory.repository;
+
+import com.goldinventory.database.DBConnection;
+import com.goldinventory.model.DailySalesSummary;
+import com.goldinventory.model.Money;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * All SQL against sales_daily_summary, the per-day, per-purity totals of sales. Checkout adds to it
+ * in the same transaction that inserts the sales rows, so readers get totals in O(days), not O(sales).
+ */
+public class SalesSummaryRepository {
+    private static final String ADD =
+            "INSERT INTO sales_daily_summary (sale_date, purity_karat, sale_count, units, grams, revenue) "
+            + "VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE sale_count = sale_count + VALUES(sale_count), "
+            + "units = units + VALUES(units), grams = grams + VALUES(grams), revenue = revenue + VALUES(revenue)";
+    private static final String SUM_REVENUE_ON =
+            "SELECT COALESCE(ROUND(SUM(revenue) * 100), 0) FROM sales_daily_summary WHERE sale_date = ?";
+
+    // Part of the caller's transaction. Pass the rows in purity order: each takes a lock on that
+    // day's row until commit, and a fixed order keeps concurrent checkouts from deadlocking
+    public static void addAll(Connection conn, Collection<DailySalesSummary> deltas) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(ADD)) {
+            for (DailySalesSummary delta : deltas) {
+                stmt.setDate(1, Date.valueOf(delta.getSaleDate()));
+                stmt.setInt(2, delta.getPurityKarat());
+                stmt.setInt(3, delta.getSaleCount());
+                stmt.setInt(4, delta.getUnits());
+                stmt.setBigDecimal(5, delta.getWeightSold().toGrams());
+                stmt.setBigDecimal(6, delta.getRevenue().toBigDecimal());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    public static Money sumRevenueOn(LocalDate saleDate) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SUM_REVENUE_ON)) {
+            stmt.setDate(1, Date.valueOf(saleDate));
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return Money.ofPaise(rs.getLong(1));
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.goldinventory.repository;
+
+import com.goldinventory.database.DBConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * All SQL against stock_holds. A hold is one row per (session, item). Placing one locks the item's
+ * gold_items row for one short transaction, so two carts can never both take the last units; renewing
+ * and expiring holds take no lock on stock rows. Expiry is compared against the server clock so
+ * terminals with skewed clocks agree.
+ */
+public class StockHoldRepository {
+    private static final String LOCK_ITEM =
+            "SELECT quantity FROM gold_items WHERE item_id = ? FOR UPDATE";
+    private static final String SUM_HELD_BY_OTHERS =
+            "SELECT COALESCE(SUM(quantity), 0) FROM stock_holds "
+            + "WHERE item_id = ? AND session_id <> ? AND expires_at > NOW(3)";
+    // Writes the hold only if the stock still covers it once other live holds are taken out
+    private static final String HOLD_IF_AVAILABLE =
+            "INSERT INTO stock_holds (session_id, item_id, customer_id, quantity, expires_at) "
+            + "SELECT ?, g.item_id, ?, ?, NOW(3) + INTERVAL ? SECOND FROM gold_items g "
+            + "WHERE g.item_id = ? AND g.quantity - COALESCE((SELECT SUM(h.quantity) FROM stock_holds h "
+            + "WHERE h.item_id = g.item_id AND h.session_id <> ? AND h.expires_at > NOW(3)), 0) >= ? "
+            + "ON DUPLICATE KEY UPDATE quantity = VALUES(quantity), expires_at = VALUES(expires_at)";
+    private static final String DELETE_ONE =
+            "DELETE FROM stock_holds WHERE session_id = ? AND item_id = ?";
+    private static final String DELETE_SESSION =
+            "DELETE FROM stock_holds WHERE session_id = ?";
+    private static final String RENEW_SESSION =
+            "UPDATE stock_holds SET expires_at = NOW(3) + INTERVAL ? SECOND WHERE session_id = ?";
+    private static final String DELETE_EXPIRED =
+            "DELETE FROM stock_holds WHERE expires_at <= NOW(3) LIMIT ?";
+
+    // Sets the session's hold on the item to exactly quantity units if they are free, in one transaction
+    // under the item's row lock, and returns the units the session could hold; 0 for unknown items.
+    // When that is less than quantity the existing hold, if any, is left as it was
+    public static int hold(String sessionId, int customerId, int itemId, int quantity, int ttlSeconds)
+            throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                int available = 0;
+                try (PreparedStatement stmt = conn.prepareStatement(LOCK_ITEM)) {
+                    stmt.setInt(1, itemId);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (rs.next()) available = rs.getInt(1);
+                    }
+                }
+                if (available > 0) {
+                    try (PreparedStatement stmt = conn.prepareStatement(SUM_HELD_BY_OTHERS)) {
+                        stmt.setInt(1, itemId);
+                        stmt.setString(2, sessionId);
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            rs.next();
+                            available = Math.max(0, available - rs.getInt(1));
+                        }
+                    }
+                }
+                if (quantity <= available) {
+                    try (PreparedStatement stmt = conn.prepareStatement(HOLD_IF_AVAILABLE)) {
+                        stmt.setString(1, sessionId);
+                        stmt.setInt(2, customerId);
+                        stmt.setInt(3, quantity);
+                        stmt.setInt(4, ttlSeconds);
+                        stmt.setInt(5, itemId);
+                        stmt.setString(6, sessionId);
+                        stmt.setInt(7, quantity);
+                        stmt.executeUpdate();
+                    }
+                }
+                conn.commit();
+                return available;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    public static void delete(String sessionId, int itemId) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(DELETE_ONE)) {
+            stmt.setString(1, sessionId);
+            stmt.setInt(2, itemId);
+            stmt.executeUpdate();
+        }
+    }
+
+    public static void deleteSession(String sessionId) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(DELETE_SESSION)) {
+            stmt.setString(1, sessionId);
+            stmt.executeUpdate();
+        }
+    }
+
+    // One statement extends every hold of the session, however many items it holds
+    public static int renewSession(String sessionId, int ttlSeconds) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(RENEW_SESSION)) {
+            stmt.setInt(1, ttlSeconds);
+            stmt.setString(2, sessionId);
+            return stmt.executeUpdate();
+        }
+    }
+
+    // Deletes at most limit expired holds so one sweep never holds locks for long
+    public static int deleteExpired(int limit) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(DELETE_EXPIRED)) {
+            stmt.setInt(1, limit);
+            return stmt.executeUpdate();
+        }
+    }
+
+    // Part of the caller's transaction: units held by other live sessions, per item
+    public static Map<Integer, Integer> sumHeldByOthers(Connection conn, Collection<Integer> itemIds, String sessionId)
+            throws SQLException {
+        Map<Integer, Integer> held = new HashMap<>();
+        if (itemIds.isEmpty()) return held;
+        String sql = "SELECT item_id, SUM(quantity) FROM stock_holds WHERE item_id IN ("
+                + GoldItemRepository.placeholders(itemIds.size())
+                + ") AND session_id <> ? AND expires_at > NOW(3) GROUP BY item_id";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            for (int itemId : itemIds) {
+                stmt.setInt(index++, itemId);
+            }
+            stmt.setString(index, sessionId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    held.put(rs.getInt(1), rs.getInt(2));
+                }
+            }
+        }
+        return held;
+    }
+
+    // Part of the caller's transaction: the checked-out items' holds are used up with the sale
+    public static void consume(Connection conn, String sessionId, Collection<Integer> itemIds) throws SQLException {
+        if (itemIds.isEmpty()) return;
+        String sql = "DELETE FROM stock_holds WHERE session_id = ? AND item_id IN ("
+                + GoldItemRepository.placeholders(itemIds.size()) + ")";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, sessionId);
+            int index = 2;
+            for (int itemId : itemIds) {
+                stmt.setInt(index++, itemId);
+            }
+            stmt.executeUpdate();
+        }
+    }
+}
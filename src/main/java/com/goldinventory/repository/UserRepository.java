@@ -0,0 +1,53 @@
+package com.goldinventory.repository;
+
+import com.goldinventory.database.DBConnection;
+import com.goldinventory.model.UserAccount;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * All SQL against users. Callers pass an already hashed password.
+ */
+public class UserRepository {
+    private static final String SELECT_BY_USERNAME =
+            "SELECT user_id, username, password, role FROM users WHERE username = ?";
+    private static final String EXISTS_BY_USERNAME =
+            "SELECT user_id FROM users WHERE username = ?";
+    private static final String INSERT =
+            "INSERT INTO users (username, password, role) VALUES (?, ?, ?)";
+
+    // Returns null when no such user exists
+    public static UserAccount findByUsername(String username) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SELECT_BY_USERNAME)) {
+            stmt.setString(1, username);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) return null;
+                return new UserAccount(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getString(4));
+            }
+        }
+    }
+
+    public static boolean existsByUsername(String username) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(EXISTS_BY_USERNAME)) {
+            stmt.setString(1, username);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    public static void insert(String username, String passwordHash, String role) throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(INSERT)) {
+            stmt.setString(1, username);
+            stmt.setString(2, passwordHash);
+            stmt.setString(3, role);
+            stmt.executeUpdate();
+        }
+    }
+}
@@ -1,30 +1,20 @@
 package com.goldinventory.service;
 
-import com.goldinventory.database.DBConnection;
+import com.goldinventory.model.UserAccount;
+import com.goldinventory.repository.UserRepository;
 import javax.swing.*;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.sql.*;
+import java.sql.SQLException;
 
 public class AuthService {
 
     // LOGIN
     public static User authenticate(String username, String password) {
-        String sql = "SELECT user_id, username, password, role FROM users WHERE username = ?";
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, username);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                String storedHash = rs.getString("password");
-                String inputHash = hashPassword(password);
-                if (storedHash.equals(inputHash)) {
-                    return new User(
-                        rs.getInt("user_id"),
-                        rs.getString("username"),
-                        rs.getString("role")
-                    );
-                }
+        try {
+            UserAccount account = UserRepository.findByUsername(username);
+            if (account != null && account.getPasswordHash().equals(hashPassword(password))) {
+                return new User(account.getUserId(), account.getUsername(), account.getRole());
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -37,19 +27,9 @@ public class AuthService {
 
     // REGISTER
     public static boolean register(String username, String password, String role) {
-        try (Connection conn = DBConnection.getConnection()) {
-            PreparedStatement check = conn.prepareStatement("SELECT * FROM users WHERE username=?");
-            check.setString(1, username);
-            ResultSet rs = check.executeQuery();
-            if (rs.next()) return false; // username already exists
-
-            PreparedStatement stmt = conn.prepareStatement(
-                "INSERT INTO users(username, password, role) VALUES (?, ?, ?)"
-            );
-            stmt.setString(1, username);
-            stmt.setString(2, hashPassword(password));
-            stmt.setString(3, role);
-            stmt.executeUpdate();
+        try {
+            if (UserRepository.existsByUsername(username)) return false; // username already exists
+            UserRepository.insert(username, hashPassword(password), role);
             return true;
         } catch (Exception e) {
             e.printStackTrace();
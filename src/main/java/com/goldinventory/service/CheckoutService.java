@@ -0,0 +1,129 @@
+package com.goldinventory.service;
+
+import com.goldinventory.database.DBConnection;
+import com.goldinventory.model.CheckoutLine;
+import com.goldinventory.model.DailySalesSummary;
+import com.goldinventory.model.GoldItem;
+import com.goldinventory.model.StockShortfall;
+import com.goldinventory.repository.CartRepository;
+import com.goldinventory.repository.GoldItemRepository;
+import com.goldinventory.repository.SalesRepository;
+import com.goldinventory.repository.SalesSummaryRepository;
+import com.goldinventory.repository.StockHoldRepository;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Turns a cart into stock decrements and sales rows inside one transaction.
+ */
+public class CheckoutService {
+
+    // Pre-check before the confirmation dialog, served from the catalog with no per-line queries.
+    // checkout() repeats the check against locked rows, which is authoritative.
+    public static List<StockShortfall> findShortfalls(List<CheckoutLine> lines) throws SQLException {
+        GoldItemCatalog catalog = GoldItemCatalog.getShared();
+        catalog.ensureLoaded();
+        catalog.pollChanges();
+        List<StockShortfall> shortfalls = new ArrayList<>();
+        for (CheckoutLine line : lines) {
+            int availableStock = catalog.getQuantity(line.getItemId());
+            if (line.getQuantity() > availableStock) {
+                shortfalls.add(new StockShortfall(line.getItemId(), line.getItemName(), line.getQuantity(), availableStock));
+            }
+        }
+        return shortfalls;
+    }
+
+    public static String describe(List<StockShortfall> shortfalls) {
+        StringBuilder message = new StringBuilder("Not enough stock for:");
+        for (StockShortfall shortfall : shortfalls) {
+            message.append("\n• ").append(shortfall.getItemName())
+                   .append(" (Available: ").append(shortfall.getAvailable())
+                   .append(", Requested: ").append(shortfall.getRequested()).append(')');
+        }
+        return message.append("\nPlease adjust your cart.").toString();
+    }
+
+    // The lines' contribution to the day's summary, one row per purity in purity order
+    static Collection<DailySalesSummary> summarize(LocalDate saleDate, List<CheckoutLine> lines,
+                                                   Map<Integer, GoldItem> items) {
+        Map<Integer, DailySalesSummary> byPurity = new TreeMap<>();
+        for (CheckoutLine line : lines) {
+            GoldItem item = items.get(line.getItemId());
+            DailySalesSummary summary = byPurity.getOrDefault(item.getPurityKarat(),
+                    DailySalesSummary.empty(saleDate, item.getPurityKarat()));
+            byPurity.put(item.getPurityKarat(),
+                    summary.plusSale(line.getQuantity(), item.getWeight(), line.getLineTotal()));
+        }
+        return byPurity.values();
+    }
+
+    // Throws InsufficientStockException, with every short line, when the locked stock less other carts'
+    // live holds cannot cover the cart. The session's own holds on the purchased items are consumed
+    // and the items leave the customer's saved cart.
+    public static void checkout(int customerId, String holdSessionId, List<CheckoutLine> lines) throws SQLException {
+        LocalDate today = LocalDate.now();
+        // item_id order so concurrent checkouts take row locks in the same order
+        List<CheckoutLine> ordered = new ArrayList<>(lines);
+        ordered.sort(Comparator.comparingInt(CheckoutLine::getItemId));
+        List<Integer> itemIds = new ArrayList<>();
+        for (CheckoutLine line : ordered) {
+            itemIds.add(line.getItemId());
+        }
+
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false); // Start transaction
+            try {
+                // One round trip validates every line and holds the rows until commit,
+                // so nothing can change between the check and the decrement
+                Map<Integer, GoldItem> locked = GoldItemRepository.lockItems(conn, itemIds);
+                Map<Integer, Integer> heldByOthers = StockHoldRepository.sumHeldByOthers(conn, itemIds, holdSessionId);
+                List<StockShortfall> shortfalls = new ArrayList<>();
+                for (CheckoutLine line : ordered) {
+                    GoldItem item = locked.get(line.getItemId());
+                    int available = item == null ? 0 : Math.max(0, item.getQuantity()
+                            - heldByOthers.getOrDefault(line.getItemId(), 0));
+                    if (line.getQuantity() > available) {
+                        shortfalls.add(new StockShortfall(line.getItemId(), line.getItemName(), line.getQuantity(), available));
+                    }
+                }
+                if (!shortfalls.isEmpty()) {
+                    throw new InsufficientStockException(shortfalls);
+                }
+
+                int[] updateCounts = GoldItemRepository.decrementStock(conn, ordered);
+                for (int i = 0; i < updateCounts.length; i++) {
+                    // Cannot happen while the rows are locked; kept as a guard
+                    if (updateCounts[i] == 0 || updateCounts[i] == Statement.EXECUTE_FAILED) {
+                        throw new SQLException("Failed to update stock for item: " + ordered.get(i).getItemName()
+                                + ". Insufficient stock or item not found.");
+                    }
+                }
+                SalesRepository.insertAll(conn, customerId, today, ordered);
+                // Last before commit, as the day's summary rows are shared by every checkout
+                SalesSummaryRepository.addAll(conn, summarize(today, ordered, locked));
+                StockHoldRepository.consume(conn, holdSessionId, itemIds);
+                CartRepository.deleteLines(conn, customerId, itemIds);
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (InsufficientStockException e) {
+            GoldItemCatalog.getShared().reload(itemIds); // The catalog let a stale quantity through
+            throw e;
+        }
+        GoldItemCatalog.getShared().reload(itemIds);
+    }
+}
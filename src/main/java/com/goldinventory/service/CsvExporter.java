@@ -0,0 +1,292 @@
+package com.goldinventory.service;
+
+import com.goldinventory.repository.SalesRepository;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes sales as CSV straight from the streaming result set into a FileChannel.
+ * Numbers and dates are formatted into pooled direct buffers without going through strings; the
+ * item name is the one String per row, built by the driver's getString. Heap use stays flat however
+ * many rows are exported. Optionally gzip-compressed.
+ */
+public class CsvExporter {
+    private static final int BUFFER_SIZE = 256 * 1024;
+    private static final int MAX_POOLED_BUFFERS = 8;
+    private static final int PROGRESS_INTERVAL_ROWS = 10_000;
+
+    private static final byte[] HEADER = ("Sale ID,Customer ID,Item Name,Weight (g),Purity (K),Total Amount,Sale Date\n")
+            .getBytes(StandardCharsets.US_ASCII);
+
+    // Direct buffers are costly to allocate and slow to be freed, so exports share them
+    private static final ConcurrentLinkedQueue<ByteBuffer> BUFFER_POOL = new ConcurrentLinkedQueue<>();
+
+    // Exports sales with from <= sale_date <= to; returns the number of rows written
+    public static long exportSales(LocalDate from, LocalDate to, File file, boolean gzip, ExportMonitor monitor)
+            throws SQLException, IOException {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("End date is before start date");
+        }
+        long estimated = SalesRepository.countByDateRange(from, to.plusDays(1));
+        monitor.onProgress(0, estimated);
+        boolean complete = false;
+        try (ChannelSink sink = new ChannelSink(file, gzip)) {
+            sink.putBytes(HEADER);
+            long[] written = new long[1];
+            SalesRepository.forEachRowBetween(from, to.plusDays(1), rs -> {
+                sink.putLong(rs.getInt(1));
+                sink.putByte(',');
+                sink.putLong(rs.getInt(2));
+                sink.putByte(',');
+                sink.putField(rs.getString(3));
+                sink.putByte(',');
+                sink.putScaled(rs.getLong(4), 3); // Milligrams as grams
+                sink.putByte(',');
+                sink.putLong(rs.getInt(5));
+                sink.putByte(',');
+                sink.putScaled(rs.getLong(6), 2); // Paise as rupees
+                sink.putByte(',');
+                sink.putDate(rs.getDate(7));
+                sink.putByte('\n');
+                if (++written[0] % PROGRESS_INTERVAL_ROWS == 0) {
+                    if (monitor.isCancelled()) throw new CancellationException("Export cancelled");
+                    monitor.onProgress(written[0], Math.max(estimated, written[0]));
+                }
+            });
+            sink.finish();
+            monitor.onProgress(written[0], written[0]);
+            complete = true;
+            return written[0];
+        } finally {
+            if (!complete) {
+                file.delete();
+            }
+        }
+    }
+
+    private static ByteBuffer acquireBuffer() {
+        ByteBuffer buffer = BUFFER_POOL.poll();
+        return buffer != null ? buffer : ByteBuffer.allocateDirect(BUFFER_SIZE);
+    }
+
+    private static void releaseBuffer(ByteBuffer buffer) {
+        buffer.clear();
+        if (BUFFER_POOL.size() < MAX_POOLED_BUFFERS) {
+            BUFFER_POOL.offer(buffer);
+        }
+    }
+
+    /**
+     * Formats CSV values into a direct buffer and drains it to the channel, deflating on the way when gzip is on.
+     */
+    static class ChannelSink implements Closeable {
+        private static final long[] POW10 = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+        private static final byte[] NO_INPUT = new byte[0];
+        private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+        private final FileChannel channel;
+        private final ByteBuffer text;
+        private final ByteBuffer compressed;
+        private final Deflater deflater;
+        private final CRC32 crc;
+        private final byte[] digits = new byte[20];
+        private final byte[] dateBytes = new byte[10];
+        private long lastDateMillis = Long.MIN_VALUE;
+        private long uncompressedBytes;
+
+        ChannelSink(File file, boolean gzip) throws IOException {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            text = acquireBuffer();
+            if (gzip) {
+                compressed = acquireBuffer();
+                deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+                crc = new CRC32();
+                compressed.put(GZIP_HEADER);
+            } else {
+                compressed = null;
+                deflater = null;
+                crc = null;
+            }
+        }
+
+        void putByte(char c) throws IOException {
+            if (!text.hasRemaining()) flush();
+            text.put((byte) c);
+        }
+
+        void putBytes(byte[] bytes) throws IOException {
+            if (text.remaining() < bytes.length) flush();
+            text.put(bytes);
+        }
+
+        void putLong(long value) throws IOException {
+            if (text.remaining() < digits.length + 1) flush();
+            if (value < 0) {
+                text.put((byte) '-');
+            } else {
+                value = -value; // Work in negatives so Long.MIN_VALUE needs no special case
+            }
+            int pos = digits.length;
+            do {
+                digits[--pos] = (byte) ('0' - (value % 10));
+                value /= 10;
+            } while (value != 0);
+            text.put(digits, pos, digits.length - pos);
+        }
+
+        // A whole number of 10^-decimals units, written with exactly that many decimals
+        void putScaled(long scaled, int decimals) throws IOException {
+            long whole = scaled / POW10[decimals];
+            // putLong signs the whole part, except when it is 0, e.g. -0.005
+            if (scaled < 0 && whole == 0) putByte('-');
+            putLong(whole);
+            putByte('.');
+            long fraction = Math.abs(scaled % POW10[decimals]);
+            for (long p = POW10[decimals] / 10; p > 0; p /= 10) {
+                putByte((char) ('0' + fraction / p % 10));
+            }
+        }
+
+        // yyyy-MM-dd; rows arrive sorted by date, so the digits are recomputed only when the date changes
+        void putDate(java.sql.Date date) throws IOException {
+            if (date == null) return;
+            if (date.getTime() != lastDateMillis) {
+                LocalDate local = date.toLocalDate();
+                writeDigits(local.getYear(), 0, 4);
+                dateBytes[4] = '-';
+                writeDigits(local.getMonthValue(), 5, 2);
+                dateBytes[7] = '-';
+                writeDigits(local.getDayOfMonth(), 8, 2);
+                lastDateMillis = date.getTime();
+            }
+            putBytes(dateBytes);
+        }
+
+        // Quoted only when needed; UTF-8 encoded char by char
+        void putField(String value) throws IOException {
+            if (value == null) return;
+            boolean quote = false;
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                    quote = true;
+                    break;
+                }
+            }
+            if (quote) putByte('"');
+            for (int i = 0; i < value.length(); i++) {
+                if (text.remaining() < 4) flush();
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    if (c == '"') text.put((byte) '"');
+                    text.put((byte) c);
+                } else if (c < 0x800) {
+                    text.put((byte) (0xc0 | (c >> 6)));
+                    text.put((byte) (0x80 | (c & 0x3f)));
+                } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, value.charAt(++i));
+                    text.put((byte) (0xf0 | (cp >> 18)));
+                    text.put((byte) (0x80 | ((cp >> 12) & 0x3f)));
+                    text.put((byte) (0x80 | ((cp >> 6) & 0x3f)));
+                    text.put((byte) (0x80 | (cp & 0x3f)));
+                } else if (Character.isSurrogate(c)) {
+                    text.put((byte) '?');
+                } else {
+                    text.put((byte) (0xe0 | (c >> 12)));
+                    text.put((byte) (0x80 | ((c >> 6) & 0x3f)));
+                    text.put((byte) (0x80 | (c & 0x3f)));
+                }
+            }
+            if (quote) putByte('"');
+        }
+
+        void finish() throws IOException {
+            flush();
+            if (deflater != null) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    deflate();
+                }
+                if (compressed.remaining() < 8) writeCompressed();
+                putIntLE(compressed, (int) crc.getValue());
+                putIntLE(compressed, (int) uncompressedBytes); // ISIZE is the length mod 2^32
+                writeCompressed();
+            }
+            channel.force(false);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                channel.close();
+            } finally {
+                if (deflater != null) {
+                    deflater.end();
+                    releaseBuffer(compressed);
+                }
+                releaseBuffer(text);
+            }
+        }
+
+        private void flush() throws IOException {
+            text.flip();
+            if (deflater == null) {
+                while (text.hasRemaining()) {
+                    channel.write(text);
+                }
+            } else {
+                uncompressedBytes += text.remaining();
+                int start = text.position();
+                crc.update(text);
+                text.position(start);
+                deflater.setInput(text);
+                while (!deflater.needsInput()) {
+                    deflate();
+                }
+                deflater.setInput(NO_INPUT); // The deflater must not see text again once it is cleared
+            }
+            text.clear();
+        }
+
+        private void deflate() throws IOException {
+            if (!compressed.hasRemaining()) writeCompressed();
+            deflater.deflate(compressed);
+        }
+
+        private void writeCompressed() throws IOException {
+            compressed.flip();
+            while (compressed.hasRemaining()) {
+                channel.write(compressed);
+            }
+            compressed.clear();
+        }
+
+        private void writeDigits(int value, int offset, int width) {
+            for (int i = offset + width - 1; i >= offset; i--) {
+                dateBytes[i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+        }
+
+        private static void putIntLE(ByteBuffer buffer, int value) {
+            buffer.put((byte) value);
+            buffer.put((byte) (value >>> 8));
+            buffer.put((byte) (value >>> 16));
+            buffer.put((byte) (value >>> 24));
+        }
+    }
+}
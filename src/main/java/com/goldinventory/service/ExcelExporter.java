@@ -1,78 +1,285 @@
 package com.goldinventory.service;
 
-import com.goldinventory.database.DBConnection;
+import com.goldinventory.model.Money;
+import com.goldinventory.model.SaleRecord;
+import com.goldinventory.repository.SalesRepository;
+import org.apache.poi.ss.SpreadsheetVersion;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import javax.swing.*;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import java.io.File;
 import java.io.FileOutputStream;
-import java.sql.*;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
 
 public class ExcelExporter {
-    public static boolean exportSalesToExcel(Date saleDate) {
-        JFileChooser fileChooser = new JFileChooser();
-        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
-        String defaultFileName = "sales_" + dateFormat.format(saleDate) + ".xlsx";
-        fileChooser.setSelectedFile(new java.io.File(defaultFileName));
-        int userSelection = fileChooser.showSaveDialog(null);
-        if (userSelection != JFileChooser.APPROVE_OPTION) {
-            return false;
-        }
-        java.io.File fileToSave = fileChooser.getSelectedFile();
-        String sql = "SELECT s.sale_id, s.customer_id, g.name as item_name, "
-                + "g.weight_grams, g.purity_karat, s.total_amount, s.sale_date "
-                + "FROM sales s "
-                + "JOIN gold_items g ON s.item_id = g.item_id "
-                + "WHERE s.sale_date = ? "
-                + "ORDER BY s.sale_id";
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql);
-             Workbook workbook = new XSSFWorkbook()) {
-            pstmt.setDate(1, new java.sql.Date(saleDate.getTime()));
-            ResultSet rs = pstmt.executeQuery();
-            Sheet sheet = workbook.createSheet("Sales Report");
+    // Rows kept in memory before SXSSF flushes them to its temp file
+    public static final int DEFAULT_ROW_WINDOW = 500;
+    // Column widths are sized from this many leading rows instead of rescanning the sheet
+    private static final int WIDTH_SAMPLE_ROWS = 1_000;
+    private static final int MAX_COLUMN_CHARS = 60;
+
+    // Progress is reported, and cancellation checked, once per this many rows
+    private static final int PROGRESS_INTERVAL_ROWS = 1_000;
+    // Header row included; a sheet that fills up continues on a new one
+    private static final int MAX_SHEET_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+    private static final DateTimeFormatter MONTH_SHEET = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    public enum Partition { DAY, MONTH }
+
+    private static final String[] HEADERS = {"Sale ID", "Customer ID", "Item Name", "Weight (g)",
+                                             "Purity (K)", "Total Amount", "Sale Date"};
+
+    // Streams one day's sales into an .xlsx with a fixed heap budget; returns the number of rows written
+    public static int exportSales(LocalDate saleDate, File file, int rowWindow, boolean compressTempFiles)
+            throws SQLException, IOException {
+        return exportSales(saleDate, file, rowWindow, compressTempFiles, ExportMonitor.NONE);
+    }
+
+    public static int exportSales(LocalDate saleDate, File file, int rowWindow, boolean compressTempFiles,
+                                  ExportMonitor monitor) throws SQLException, IOException {
+        long estimated = SalesRepository.countByDate(saleDate);
+        monitor.onProgress(0, estimated);
+        SXSSFWorkbook workbook = new SXSSFWorkbook(rowWindow);
+        workbook.setCompressTempFiles(compressTempFiles);
+        boolean complete = false;
+        try {
+            SheetSeries sheets = new SheetSeries(workbook, createHeaderStyle(workbook));
+            int rows = SalesRepository.forEachByDate(saleDate, sale -> {
+                sheets.append("Sales Report", sale);
+                long written = sheets.getRowsWritten();
+                if (written % PROGRESS_INTERVAL_ROWS == 0) {
+                    if (monitor.isCancelled()) throw new CancellationException("Export cancelled");
+                    monitor.onProgress(written, Math.max(estimated, written));
+                }
+            });
+            sheets.finish();
+            try (FileOutputStream fileOut = new FileOutputStream(file)) {
+                workbook.write(fileOut);
+            }
+            monitor.onProgress(rows, rows);
+            complete = true;
+            return rows;
+        } finally {
+            workbook.dispose(); // Delete the temp files backing flushed rows
+            workbook.close();
+            if (!complete) {
+                file.delete();
+            }
+        }
+    }
+
+    /**
+     * Exports sales from {@code from} to {@code to} inclusive, one sheet per day or month plus a leading
+     * Summary sheet. Sales are streamed in date order over one pooled connection; days without sales get
+     * no sheet. A cancelled or failed export deletes the partial file.
+     */
+    public static long exportSalesRange(LocalDate from, LocalDate to, Partition partition, File file,
+                                        ExportMonitor monitor) throws SQLException, IOException {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("End date is before start date");
+        }
+        long estimated = SalesRepository.countByDateRange(from, to.plusDays(1));
+        monitor.onProgress(0, estimated);
+
+        SXSSFWorkbook workbook = new SXSSFWorkbook(DEFAULT_ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        boolean complete = false;
+        try {
+            CellStyle headerStyle = createHeaderStyle(workbook);
+            Sheet summarySheet = workbook.createSheet("Summary");
+            SheetSeries sheets = new SheetSeries(workbook, headerStyle);
+            long written = SalesRepository.forEachBetween(from, to.plusDays(1), sale -> {
+                LocalDate day = sale.getSaleDate();
+                sheets.append(partition == Partition.DAY ? day.toString() : day.format(MONTH_SHEET), sale);
+                long rows = sheets.getRowsWritten();
+                if (rows % PROGRESS_INTERVAL_ROWS == 0) {
+                    if (monitor.isCancelled()) throw new CancellationException("Export cancelled");
+                    monitor.onProgress(rows, Math.max(estimated, rows));
+                }
+            });
+            sheets.finish();
+            writeSummary(summarySheet, headerStyle, sheets.getSummary(), written);
+
+            try (FileOutputStream fileOut = new FileOutputStream(file)) {
+                workbook.write(fileOut);
+            }
+            monitor.onProgress(written, written);
+            complete = true;
+            return written;
+        } finally {
+            workbook.dispose();
+            workbook.close();
+            if (!complete) {
+                file.delete();
+            }
+        }
+    }
+
+    private static void writeSummary(Sheet sheet, CellStyle headerStyle, List<Object[]> summary, long totalSales) {
+        String[] headers = {"Sheet", "Sales", "Total Amount"};
+        Row headerRow = sheet.createRow(0);
+        for (int i = 0; i < headers.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(headers[i]);
+            cell.setCellStyle(headerStyle);
+        }
+        int rowNum = 1;
+        Money grandTotal = Money.ZERO;
+        for (Object[] line : summary) {
+            Row row = sheet.createRow(rowNum++);
+            row.createCell(0).setCellValue((String) line[0]);
+            row.createCell(1).setCellValue((Integer) line[1]);
+            Money total = (Money) line[2];
+            row.createCell(2).setCellValue(total.toRupees());
+            grandTotal = grandTotal.plus(total);
+        }
+        Row totalRow = sheet.createRow(rowNum);
+        totalRow.createCell(0).setCellValue("Total");
+        totalRow.createCell(1).setCellValue(totalSales);
+        totalRow.createCell(2).setCellValue(grandTotal.toRupees());
+        for (Cell cell : totalRow) {
+            cell.setCellStyle(headerStyle);
+        }
+        sheet.setColumnWidth(0, 14 * 256);
+        sheet.setColumnWidth(1, 10 * 256);
+        sheet.setColumnWidth(2, 16 * 256);
+    }
+
+    static CellStyle createHeaderStyle(Workbook workbook) {
+        CellStyle headerStyle = workbook.createCellStyle();
+        headerStyle.setFillForegroundColor(IndexedColors.GOLD.getIndex());
+        headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        Font headerFont = workbook.createFont();
+        headerFont.setBold(true);
+        headerStyle.setFont(headerFont);
+        return headerStyle;
+    }
+
+    /**
+     * Writes sales in order to one sheet per key, such as a day, and keeps a summary line per sheet.
+     * A sheet that reaches Excel's row limit continues on "key (2)", "key (3)" and so on.
+     */
+    static class SheetSeries {
+        private final Workbook workbook;
+        private final CellStyle headerStyle;
+        private final List<Object[]> summary = new ArrayList<>();
+        private SalesSheetWriter writer;
+        private String key;
+        private String sheetName;
+        private int part;
+        private Money sheetTotal = Money.ZERO;
+        private long rowsWritten;
+
+        SheetSeries(Workbook workbook, CellStyle headerStyle) {
+            this.workbook = workbook;
+            this.headerStyle = headerStyle;
+        }
+
+        void append(String sheetKey, SaleRecord sale) {
+            if (!sheetKey.equals(key)) {
+                closeSheet();
+                key = sheetKey;
+                part = 0;
+            } else if (writer != null && writer.isFull()) {
+                closeSheet();
+            }
+            if (writer == null) {
+                part++;
+                sheetName = part == 1 ? key : key + " (" + part + ")";
+                writer = new SalesSheetWriter(workbook, sheetName, headerStyle);
+            }
+            writer.append(sale);
+            sheetTotal = sheetTotal.plus(sale.getTotalAmount());
+            rowsWritten++;
+        }
+
+        long getRowsWritten() {
+            return rowsWritten;
+        }
+
+        // Sheet name, sales and total amount per sheet, in the order the sheets were written
+        List<Object[]> getSummary() {
+            return summary;
+        }
+
+        void finish() {
+            closeSheet();
+        }
+
+        private void closeSheet() {
+            if (writer == null) return;
+            writer.finish();
+            summary.add(new Object[]{sheetName, writer.getRowsWritten(), sheetTotal});
+            writer = null;
+            sheetTotal = Money.ZERO;
+        }
+    }
+
+    /**
+     * Appends sales rows to one sheet and sizes its columns from a sampled prefix.
+     */
+    static class SalesSheetWriter {
+        private final Sheet sheet;
+        private final int[] widthChars = new int[HEADERS.length];
+        private int rowNum = 1;
+
+        SalesSheetWriter(Workbook workbook, String sheetName, CellStyle headerStyle) {
+            sheet = workbook.createSheet(sheetName);
             Row headerRow = sheet.createRow(0);
-            String[] headers = {"Sale ID", "Customer ID", "Item Name", "Weight (g)", 
-                              "Purity (K)", "Total Amount", "Sale Date"};
-            CellStyle headerStyle = workbook.createCellStyle();
-            headerStyle.setFillForegroundColor(IndexedColors.GOLD.getIndex());
-            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-            Font headerFont = workbook.createFont();
-            headerFont.setBold(true);
-            headerStyle.setFont(headerFont);
-            for (int i = 0; i < headers.length; i++) {
+            for (int i = 0; i < HEADERS.length; i++) {
                 Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
+                cell.setCellValue(HEADERS[i]);
                 cell.setCellStyle(headerStyle);
+                widthChars[i] = HEADERS[i].length();
             }
-            int rowNum = 1;
-            while (rs.next()) {
-                Row row = sheet.createRow(rowNum++);
-                row.createCell(0).setCellValue(rs.getInt("sale_id"));
-                row.createCell(1).setCellValue(rs.getInt("customer_id"));
-                row.createCell(2).setCellValue(rs.getString("item_name"));
-                row.createCell(3).setCellValue(rs.getDouble("weight_grams"));
-                row.createCell(4).setCellValue(rs.getInt("purity_karat"));
-                row.createCell(5).setCellValue(rs.getDouble("total_amount"));
-                row.createCell(6).setCellValue(rs.getDate("sale_date").toString());
+        }
+
+        void append(SaleRecord sale) {
+            Row row = sheet.createRow(rowNum);
+            row.createCell(0).setCellValue(sale.getSaleId());
+            row.createCell(1).setCellValue(sale.getCustomerId());
+            row.createCell(2).setCellValue(sale.getItemName());
+            row.createCell(3).setCellValue(sale.getWeight().toGramsDouble());
+            row.createCell(4).setCellValue(sale.getPurityKarat());
+            row.createCell(5).setCellValue(sale.getTotalAmount().toRupees());
+            String saleDate = sale.getSaleDate().toString();
+            row.createCell(6).setCellValue(saleDate);
+            if (rowNum <= WIDTH_SAMPLE_ROWS) {
+                sample(0, Integer.toString(sale.getSaleId()));
+                sample(1, Integer.toString(sale.getCustomerId()));
+                sample(2, sale.getItemName());
+                sample(3, sale.getWeight().toString());
+                sample(4, Integer.toString(sale.getPurityKarat()));
+                sample(5, sale.getTotalAmount().toString());
+                sample(6, saleDate);
             }
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
+            rowNum++;
+        }
+
+        int getRowsWritten() {
+            return rowNum - 1;
+        }
+
+        boolean isFull() {
+            return rowNum >= MAX_SHEET_ROWS;
+        }
+
+        void finish() {
+            for (int i = 0; i < widthChars.length; i++) {
+                int chars = Math.min(widthChars[i], MAX_COLUMN_CHARS) + 2;
+                sheet.setColumnWidth(i, chars * 256);
             }
-            try (FileOutputStream fileOut = new FileOutputStream(fileToSave)) {
-                workbook.write(fileOut);
+        }
+
+        private void sample(int column, String text) {
+            if (text != null && text.length() > widthChars[column]) {
+                widthChars[column] = text.length();
             }
-            JOptionPane.showMessageDialog(null,
-                "Sales data exported successfully to:\n" + fileToSave.getAbsolutePath(),
-                "Export Successful", JOptionPane.INFORMATION_MESSAGE);
-            return true;
-        } catch (Exception e) {
-            JOptionPane.showMessageDialog(null,
-                "Error exporting to Excel: " + e.getMessage(),
-                "Export Error", JOptionPane.ERROR_MESSAGE);
-            return false;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,109 @@
+package com.goldinventory.service;
+
+import java.io.File;
+import java.util.concurrent.Future;
+
+/**
+ * One export submitted to {@link ExportJobQueue}. Status and progress are written by the
+ * worker running it and may be read from any thread.
+ */
+public class ExportJob implements ExportMonitor {
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED }
+
+    /**
+     * The export itself; reports progress to and polls cancellation from the monitor it is given.
+     */
+    public interface Task {
+        long run(ExportMonitor monitor) throws Exception;
+    }
+
+    private final int id;
+    private final String description;
+    private final File file;
+    private final long queuedAt = System.currentTimeMillis();
+    private final ExportJobQueue queue;
+
+    private volatile Status status = Status.QUEUED;
+    private volatile long rowsWritten;
+    private volatile long estimatedTotal = -1;
+    private volatile long startedAt;
+    private volatile long finishedAt;
+    private volatile String error;
+    private volatile boolean cancelRequested;
+    private volatile Future<?> future;
+
+    ExportJob(int id, String description, File file, ExportJobQueue queue) {
+        this.id = id;
+        this.description = description;
+        this.file = file;
+        this.queue = queue;
+    }
+
+    public int getId() { return id; }
+    public String getDescription() { return description; }
+    public File getFile() { return file; }
+    public Status getStatus() { return status; }
+    public long getRowsWritten() { return rowsWritten; }
+    // -1 until the export has counted its rows
+    public long getEstimatedTotal() { return estimatedTotal; }
+    public long getQueuedAt() { return queuedAt; }
+    public long getStartedAt() { return startedAt; }
+    public long getFinishedAt() { return finishedAt; }
+    public String getError() { return error; }
+
+    public boolean isFinished() {
+        Status s = status;
+        return s == Status.COMPLETED || s == Status.FAILED || s == Status.CANCELLED;
+    }
+
+    // 0-100, or -1 while the total is unknown
+    public int getPercentDone() {
+        long total = estimatedTotal;
+        if (status == Status.COMPLETED) return 100;
+        if (total < 0) return -1;
+        return total == 0 ? 100 : (int) Math.min(100, rowsWritten * 100 / total);
+    }
+
+    // A queued job is dropped before it starts; a running one stops at its next progress check
+    public synchronized void cancel() {
+        if (isFinished()) return;
+        cancelRequested = true;
+        if (status == Status.QUEUED) {
+            if (future != null) future.cancel(false);
+            finish(Status.CANCELLED, null);
+        }
+    }
+
+    @Override
+    public void onProgress(long rowsWritten, long estimatedTotal) {
+        this.rowsWritten = rowsWritten;
+        this.estimatedTotal = estimatedTotal;
+        queue.fireChanged(this);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelRequested || Thread.currentThread().isInterrupted();
+    }
+
+    synchronized void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    // Returns false when the job was cancelled while it sat in the queue
+    synchronized boolean start() {
+        if (status != Status.QUEUED) return false;
+        startedAt = System.currentTimeMillis();
+        status = Status.RUNNING;
+        queue.fireChanged(this);
+        return true;
+    }
+
+    synchronized void finish(Status finalStatus, String errorMessage) {
+        if (isFinished()) return;
+        finishedAt = System.currentTimeMillis();
+        error = errorMessage;
+        status = finalStatus;
+        queue.fireChanged(this);
+    }
+}
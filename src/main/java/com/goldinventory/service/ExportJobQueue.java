@@ -0,0 +1,119 @@
+package com.goldinventory.service;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs exports in the background on a small bounded pool so they never block the EDT
+ * or the query executor. Keeps a bounded history of recent jobs for the admin dashboard.
+ */
+public class ExportJobQueue {
+    private static final int WORKERS = 2;
+    private static final int QUEUE_CAPACITY = 16;
+    private static final int HISTORY_SIZE = 50;
+
+    private static final ExportJobQueue SHARED = new ExportJobQueue(WORKERS, QUEUE_CAPACITY);
+
+    /**
+     * Notified on every status or progress change. Called on the worker thread, never the EDT.
+     */
+    public interface Listener {
+        void jobChanged(ExportJob job);
+    }
+
+    private final ThreadPoolExecutor workers;
+    private final AtomicInteger nextId = new AtomicInteger(1);
+    private final Deque<ExportJob> history = new ArrayDeque<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    public ExportJobQueue(int workerCount, int queueCapacity) {
+        AtomicInteger threadId = new AtomicInteger(1);
+        workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "export-worker-" + threadId.getAndIncrement());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    public static ExportJobQueue getShared() {
+        return SHARED;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    // Throws RejectedExecutionException when QUEUE_CAPACITY exports are already waiting
+    public ExportJob submit(String description, File file, ExportJob.Task task) {
+        ExportJob job = new ExportJob(nextId.getAndIncrement(), description, file, this);
+        try {
+            job.setFuture(workers.submit(() -> run(job, task)));
+        } catch (RejectedExecutionException e) {
+            throw new RejectedExecutionException("Too many exports are queued; try again when one finishes", e);
+        }
+        synchronized (history) {
+            history.addFirst(job);
+            while (history.size() > HISTORY_SIZE && history.peekLast().isFinished()) {
+                history.removeLast();
+            }
+        }
+        fireChanged(job);
+        return job;
+    }
+
+    // Newest first
+    public List<ExportJob> getJobs() {
+        synchronized (history) {
+            return new ArrayList<>(history);
+        }
+    }
+
+    public int getActiveCount() {
+        return workers.getActiveCount();
+    }
+
+    public int getQueuedCount() {
+        return workers.getQueue().size();
+    }
+
+    public void shutdown() {
+        for (ExportJob job : getJobs()) {
+            job.cancel();
+        }
+        workers.shutdownNow();
+    }
+
+    void fireChanged(ExportJob job) {
+        for (Listener listener : listeners) {
+            listener.jobChanged(job);
+        }
+    }
+
+    private void run(ExportJob job, ExportJob.Task task) {
+        if (!job.start()) return;
+        try {
+            task.run(job);
+            job.finish(ExportJob.Status.COMPLETED, null);
+        } catch (CancellationException | InterruptedException e) {
+            job.finish(ExportJob.Status.CANCELLED, null);
+        } catch (Exception e) {
+            e.printStackTrace();
+            job.finish(ExportJob.Status.FAILED, e.getMessage() != null ? e.getMessage() : e.toString());
+        }
+    }
+}
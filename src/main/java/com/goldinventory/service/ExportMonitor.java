@@ -0,0 +1,15 @@
+package com.goldinventory.service;
+
+/**
+ * Progress sink and cancellation flag for long-running exports. Called from the exporting thread.
+ */
+public interface ExportMonitor {
+    ExportMonitor NONE = new ExportMonitor() {
+        @Override public void onProgress(long rowsWritten, long estimatedTotal) {}
+        @Override public boolean isCancelled() { return false; }
+    };
+
+    void onProgress(long rowsWritten, long estimatedTotal);
+
+    boolean isCancelled();
+}
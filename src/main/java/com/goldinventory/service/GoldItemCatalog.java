@@ -0,0 +1,214 @@
+package com.goldinventory.service;
+
+import com.goldinventory.model.GoldItem;
+import com.goldinventory.repository.GoldItemRepository;
+import com.goldinventory.repository.GoldRateRepository;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide in-memory copy of gold_items keyed by item_id.
+ * Loaded once, then kept fresh by the writes made through this process
+ * and by polling the updated_at watermark for writes made by other terminals.
+ * Repricing moves updated_at too; new gold rates are checked for more often and trigger an early poll.
+ */
+public class GoldItemCatalog {
+    private static final long POLL_INTERVAL_MILLIS = 5_000;
+    // Re-read a little before the last watermark so rows committed late by a slow transaction are not missed
+    private static final long WATERMARK_OVERLAP_MILLIS = 2_000;
+    // Rate changes are checked more often than rows, so shoppers see new prices within a second
+    private static final long RATE_POLL_INTERVAL_MILLIS = 1_000;
+
+    private static final GoldItemCatalog SHARED = new GoldItemCatalog();
+
+    /**
+     * Receives every applied change. Called on the thread that applied it, never the EDT.
+     */
+    public interface Listener {
+        void catalogChanged(List<GoldItem> upserted, List<Integer> removedIds);
+    }
+
+    private final Map<Integer, GoldItem> items = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile boolean loaded;
+    private volatile long version;
+    private Timestamp watermark;
+    // Latest gold_rates row this catalog's prices reflect
+    private int rateMarker;
+    private ScheduledExecutorService poller;
+
+    public static GoldItemCatalog getShared() {
+        return SHARED;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // Incremented on every applied change
+    public long getVersion() {
+        return version;
+    }
+
+    public synchronized void ensureLoaded() throws SQLException {
+        if (loaded) return;
+        Timestamp loadStartedAt = GoldItemRepository.currentServerTime();
+        rateMarker = GoldRateRepository.findLatestId();
+        for (GoldItem item : GoldItemRepository.findAll()) {
+            items.put(item.getItemId(), item);
+        }
+        watermark = minusOverlap(loadStartedAt);
+        loaded = true;
+        version++;
+        startPolling();
+    }
+
+    public GoldItem get(int itemId) {
+        return items.get(itemId);
+    }
+
+    // Returns 0 for unknown items
+    public int getQuantity(int itemId) {
+        GoldItem item = items.get(itemId);
+        return item == null ? 0 : item.getQuantity();
+    }
+
+    public List<GoldItem> getAll() {
+        List<GoldItem> all = new ArrayList<>(items.values());
+        all.sort(Comparator.comparingInt(GoldItem::getItemId));
+        return all;
+    }
+
+    public List<GoldItem> getAvailable() {
+        List<GoldItem> available = new ArrayList<>();
+        for (GoldItem item : items.values()) {
+            if (item.getQuantity() > 0) available.add(item);
+        }
+        available.sort(Comparator.comparing(GoldItem::getName).thenComparingInt(GoldItem::getItemId));
+        return available;
+    }
+
+    // Re-reads rows this process has just written; ids that no longer exist are dropped
+    public void reload(Collection<Integer> itemIds) throws SQLException {
+        if (!loaded || itemIds.isEmpty()) return;
+        List<GoldItem> fresh = GoldItemRepository.findByIds(itemIds);
+        Set<Integer> missing = new HashSet<>(itemIds);
+        for (GoldItem item : fresh) {
+            missing.remove(item.getItemId());
+        }
+        apply(fresh, new ArrayList<>(missing));
+    }
+
+    public void reload(int itemId) throws SQLException {
+        reload(Collections.singletonList(itemId));
+    }
+
+    // Picks up writes made by other terminals since the last watermark
+    public void pollChanges() throws SQLException {
+        if (!loaded) return;
+        Timestamp since;
+        synchronized (this) {
+            since = watermark;
+        }
+        Timestamp pollStartedAt = GoldItemRepository.currentServerTime();
+        List<GoldItem> updated = GoldItemRepository.findUpdatedSince(since);
+        List<Integer> deleted = GoldItemRepository.findDeletedSince(since);
+        apply(updated, deleted);
+        synchronized (this) {
+            Timestamp next = minusOverlap(pollStartedAt);
+            if (next.after(watermark)) watermark = next;
+        }
+    }
+
+    // Polls for changed rows as soon as new rates are stored. Rates are stored only after every row has
+    // been repriced, so the poll reads the new prices as the database has them, versions included.
+    public void pollRates() throws SQLException {
+        if (!loaded) return;
+        int latest = GoldRateRepository.findLatestId();
+        synchronized (this) {
+            if (latest == rateMarker) return;
+        }
+        pollChanges();
+        synchronized (this) {
+            rateMarker = latest;
+        }
+    }
+
+    public synchronized void shutdown() {
+        if (poller != null) {
+            poller.shutdownNow();
+            poller = null;
+        }
+    }
+
+    private synchronized void apply(List<GoldItem> upserted, List<Integer> removedIds) {
+        List<GoldItem> changed = new ArrayList<>();
+        for (GoldItem item : upserted) {
+            // The overlap window re-reads unchanged rows; only real changes reach listeners
+            if (!item.equals(items.put(item.getItemId(), item))) {
+                changed.add(item);
+            }
+        }
+        List<Integer> removed = new ArrayList<>();
+        for (int itemId : removedIds) {
+            if (items.remove(itemId) != null) {
+                removed.add(itemId);
+            }
+        }
+        if (changed.isEmpty() && removed.isEmpty()) return;
+        version++;
+        for (Listener listener : listeners) {
+            listener.catalogChanged(changed, removed);
+        }
+    }
+
+    private void startPolling() {
+        if (poller != null) return;
+        poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "catalog-poller");
+            t.setDaemon(true);
+            return t;
+        });
+        poller.scheduleWithFixedDelay(() -> {
+            try {
+                pollChanges();
+            } catch (SQLException | RuntimeException e) {
+                // Try again on the next tick; the watermark has not moved
+                e.printStackTrace();
+            }
+        }, POLL_INTERVAL_MILLIS, POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        poller.scheduleWithFixedDelay(() -> {
+            try {
+                pollRates();
+            } catch (SQLException | RuntimeException e) {
+                e.printStackTrace();
+            }
+        }, RATE_POLL_INTERVAL_MILLIS, RATE_POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private static Timestamp minusOverlap(Timestamp time) {
+        return new Timestamp(time.getTime() - WATERMARK_OVERLAP_MILLIS);
+    }
+}
@@ -0,0 +1,23 @@
+package com.goldinventory.service;
+
+import com.goldinventory.model.StockShortfall;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Checkout was rolled back because one or more lines exceed the stock locked inside the transaction.
+ */
+public class InsufficientStockException extends SQLException {
+    private final List<StockShortfall> shortfalls;
+
+    public InsufficientStockException(List<StockShortfall> shortfalls) {
+        super(CheckoutService.describe(shortfalls));
+        this.shortfalls = Collections.unmodifiableList(shortfalls);
+    }
+
+    public List<StockShortfall> getShortfalls() {
+        return shortfalls;
+    }
+}
@@ -0,0 +1,95 @@
+package com.goldinventory.service;
+
+import com.goldinventory.model.GoldItem;
+import com.goldinventory.model.Money;
+import com.goldinventory.model.Weight;
+import com.goldinventory.repository.GoldItemRepository;
+
+import java.math.RoundingMode;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Optimistic admin edits of gold_items. A save only applies if the row still has the version the
+ * admin started from. Otherwise the edit is three-way merged with the row's current state and
+ * handed back for the admin to confirm. No lock is held while the dialog is open.
+ */
+public class ItemEditService {
+
+    public enum Outcome { SAVED, CONFLICT, DELETED }
+
+    public static final class Result {
+        private final Outcome outcome;
+        private final GoldItem current;
+        private final GoldItem merged;
+        private final List<String> conflicts;
+
+        private Result(Outcome outcome, GoldItem current, GoldItem merged, List<String> conflicts) {
+            this.outcome = outcome;
+            this.current = current;
+            this.merged = merged;
+            this.conflicts = conflicts;
+        }
+
+        public Outcome getOutcome() { return outcome; }
+        // The row as it is now; null when SAVED or DELETED
+        public GoldItem getCurrent() { return current; }
+        // The edit replayed on top of current, at current's version; null unless CONFLICT
+        public GoldItem getMerged() { return merged; }
+        // Fields both sides changed to different values
+        public List<String> getConflicts() { return conflicts; }
+    }
+
+    // base is the row the edit started from; edited carries the admin's values
+    public static Result save(GoldItem base, GoldItem edited) throws SQLException {
+        int itemId = base.getItemId();
+        int rows = GoldItemRepository.update(itemId, edited.getName(), edited.getWeight(),
+                edited.getPurityKarat(), edited.getPricePerGram(), edited.getTotalPrice(),
+                edited.getQuantity(), base.getVersion());
+        GoldItemCatalog.getShared().reload(itemId);
+        if (rows > 0) {
+            return new Result(Outcome.SAVED, null, null, Collections.emptyList());
+        }
+        List<GoldItem> found = GoldItemRepository.findByIds(Collections.singletonList(itemId));
+        if (found.isEmpty()) {
+            return new Result(Outcome.DELETED, null, null, Collections.emptyList());
+        }
+        GoldItem current = found.get(0);
+        List<String> conflicts = new ArrayList<>();
+        GoldItem merged = merge(base, edited, current, conflicts);
+        return new Result(Outcome.CONFLICT, current, merged, conflicts);
+    }
+
+    // Each field keeps whichever side changed it. When both did, the admin's value wins, except
+    // quantity, where the admin's adjustment is applied on top of the current stock so sales made
+    // in the meantime are not undone
+    static GoldItem merge(GoldItem base, GoldItem mine, GoldItem theirs, List<String> conflicts) {
+        String name = pick("Name", base.getName(), mine.getName(), theirs.getName(), conflicts);
+        Weight weight = pick("Weight", base.getWeight(), mine.getWeight(), theirs.getWeight(), conflicts);
+        int purity = pick("Purity", base.getPurityKarat(), mine.getPurityKarat(), theirs.getPurityKarat(), conflicts);
+        Money pricePerGram = pick("Price per gram", base.getPricePerGram(), mine.getPricePerGram(),
+                theirs.getPricePerGram(), conflicts);
+        int quantity;
+        if (mine.getQuantity() == base.getQuantity()) {
+            quantity = theirs.getQuantity();
+        } else if (theirs.getQuantity() == base.getQuantity()) {
+            quantity = mine.getQuantity();
+        } else {
+            quantity = Math.max(0, theirs.getQuantity() + mine.getQuantity() - base.getQuantity());
+            conflicts.add("Quantity");
+        }
+        return new GoldItem(base.getItemId(), name, weight, purity, pricePerGram,
+                pricePerGram.timesWeight(weight, RoundingMode.HALF_UP),
+                quantity, theirs.getStatus(), theirs.getVersion());
+    }
+
+    private static <T> T pick(String field, T base, T mine, T theirs, List<String> conflicts) {
+        if (Objects.equals(mine, base)) return theirs;
+        if (Objects.equals(theirs, base) || Objects.equals(theirs, mine)) return mine;
+        conflicts.add(field);
+        return mine;
+    }
+}
@@ -0,0 +1,103 @@
+package com.goldinventory.service;
+
+import com.goldinventory.model.GoldRate;
+import com.goldinventory.model.Money;
+import com.goldinventory.repository.GoldItemRepository;
+import com.goldinventory.repository.GoldRateRepository;
+
+import java.math.RoundingMode;
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Derives item prices from the gold rate of their purity. An item's price per gram is the rate plus
+ * the making charge, and its total is that times its weight. A purity without a rate of its own
+ * takes the 24K rate scaled by karat / 24.
+ */
+public class PricingService {
+    public static final int FINE_KARAT = 24;
+    // Rows repriced per statement; each chunk commits on its own so checkout waits at most one chunk
+    private static final int REPRICE_CHUNK_ROWS = 1_000;
+    private static final int MAX_CHUNK_ATTEMPTS = 3;
+
+    public static Map<Integer, GoldRate> currentRates() throws SQLException {
+        return GoldRateRepository.findCurrent();
+    }
+
+    // Null when neither the purity nor 24K has a rate
+    public static Money pricePerGram(Map<Integer, GoldRate> rates, int purityKarat) {
+        GoldRate rate = rates.get(purityKarat);
+        if (rate != null) {
+            return rate.getPricePerGram();
+        }
+        GoldRate fine = rates.get(FINE_KARAT);
+        if (fine == null) return null;
+        return fine.getRatePerGram().times(purityKarat, FINE_KARAT, RoundingMode.HALF_UP)
+                .plus(fine.getMakingChargePerGram());
+    }
+
+    public static Map<Integer, Money> pricesByPurity(Map<Integer, GoldRate> rates, Collection<Integer> purities) {
+        Map<Integer, Money> prices = new HashMap<>();
+        for (int purity : purities) {
+            Money price = pricePerGram(rates, purity);
+            if (price != null) {
+                prices.put(purity, price);
+            }
+        }
+        return prices;
+    }
+
+    // True when every rate matches the one in effect, so applying them would change nothing
+    public static boolean sameRates(List<GoldRate> rates, Map<Integer, GoldRate> current) {
+        for (GoldRate rate : rates) {
+            GoldRate existing = current.get(rate.getPurityKarat());
+            if (existing == null || !existing.getRatePerGram().equals(rate.getRatePerGram())
+                    || !existing.getMakingChargePerGram().equals(rate.getMakingChargePerGram())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Reprices the catalog for the rates, then stores them effective now; returns the items whose price changed.
+    // The rows are repriced in primary key chunks and the rates are stored last, so terminals, which re-read
+    // changed rows early when they see new rates, only do so once every row carries the new price. This
+    // terminal's catalog re-reads them once everything has committed; if a chunk fails, the rows already
+    // repriced reach it through the regular poll.
+    public static int applyRates(List<GoldRate> rates) throws SQLException {
+        Map<Integer, GoldRate> effective = new HashMap<>(currentRates());
+        for (GoldRate rate : rates) {
+            effective.put(rate.getPurityKarat(), rate);
+        }
+        Map<Integer, Money> prices = pricesByPurity(effective, GoldItemRepository.findPurities());
+
+        int repriced = 0;
+        if (!prices.isEmpty()) {
+            int afterId = Integer.MIN_VALUE;
+            while (true) {
+                Integer chunkEnd = GoldItemRepository.findChunkEnd(afterId, REPRICE_CHUNK_ROWS);
+                repriced += repriceChunk(afterId, chunkEnd != null ? chunkEnd : Integer.MAX_VALUE, prices);
+                if (chunkEnd == null) break;
+                afterId = chunkEnd;
+            }
+        }
+        GoldRateRepository.insertAll(rates);
+        GoldItemCatalog.getShared().pollChanges();
+        return repriced;
+    }
+
+    // A chunk can lose a deadlock against a checkout locking the same rows; it is safe to run again
+    private static int repriceChunk(int afterId, int upToId, Map<Integer, Money> prices) throws SQLException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return GoldItemRepository.repriceRange(afterId, upToId, prices);
+            } catch (SQLTransactionRollbackException e) {
+                if (attempt == MAX_CHUNK_ATTEMPTS) throw e;
+            }
+        }
+    }
+}
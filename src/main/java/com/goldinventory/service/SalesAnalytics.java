@@ -0,0 +1,87 @@
+package com.goldinventory.service;
+
+import com.goldinventory.model.SalesPeriodTotals;
+import com.goldinventory.model.SalesRanking;
+import com.goldinventory.repository.AnalyticsRepository;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sales aggregates over arbitrary date ranges, cached per query and range. Ranges that include today
+ * keep changing with every checkout and are cached briefly; ranges wholly in the past cannot change
+ * and are kept longer. Ranges are inclusive of both ends.
+ */
+public class SalesAnalytics {
+    private static final long LIVE_TTL_MILLIS = 30 * 1000;
+    private static final long CLOSED_TTL_MILLIS = 15 * 60 * 1000;
+    private static final int MAX_CACHED_RESULTS = 200;
+
+    private static final SalesAnalytics SHARED = new SalesAnalytics();
+
+    private final Map<String, Cached> cache = new ConcurrentHashMap<>();
+
+    private static final class Cached {
+        final Object value;
+        final long expiresAt;
+
+        Cached(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private interface Query<T> {
+        T run() throws SQLException;
+    }
+
+    public static SalesAnalytics getShared() {
+        return SHARED;
+    }
+
+    public List<SalesPeriodTotals> totalsByPeriod(LocalDate from, LocalDate to,
+                                                  AnalyticsRepository.Granularity granularity) throws SQLException {
+        return cached("periods:" + granularity, from, to,
+                () -> Collections.unmodifiableList(AnalyticsRepository.totalsByPeriod(from, to.plusDays(1), granularity)));
+    }
+
+    public List<SalesRanking> topItems(LocalDate from, LocalDate to, int limit) throws SQLException {
+        return cached("items:" + limit, from, to,
+                () -> Collections.unmodifiableList(AnalyticsRepository.topItems(from, to.plusDays(1), limit)));
+    }
+
+    public List<SalesRanking> topCustomers(LocalDate from, LocalDate to, int limit) throws SQLException {
+        return cached("customers:" + limit, from, to,
+                () -> Collections.unmodifiableList(AnalyticsRepository.topCustomers(from, to.plusDays(1), limit)));
+    }
+
+    // Drops everything, e.g. after an admin asks for fresh figures
+    public void invalidate() {
+        cache.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T cached(String query, LocalDate from, LocalDate to, Query<T> load) throws SQLException {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("End date is before start date");
+        }
+        String key = query + ":" + from + ":" + to;
+        long now = System.currentTimeMillis();
+        Cached hit = cache.get(key);
+        if (hit != null && hit.expiresAt > now) {
+            return (T) hit.value;
+        }
+        T value = load.run();
+        if (cache.size() >= MAX_CACHED_RESULTS) {
+            cache.values().removeIf(entry -> entry.expiresAt <= now);
+            if (cache.size() >= MAX_CACHED_RESULTS) cache.clear();
+        }
+        long ttl = to.isBefore(LocalDate.now()) ? CLOSED_TTL_MILLIS : LIVE_TTL_MILLIS;
+        cache.put(key, new Cached(value, now + ttl));
+        return value;
+    }
+}
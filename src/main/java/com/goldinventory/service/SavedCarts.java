@@ -0,0 +1,141 @@
+package com.goldinventory.service;
+
+import com.goldinventory.repository.CartRepository;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Customers' carts saved in carts and cart_lines, so a cart outlives a logout, a crash or a move to
+ * another terminal. Writes are behind: an open cart keeps only the latest quantity per changed item,
+ * and a background thread saves them in one transaction every couple of seconds, so a run of spinner
+ * clicks costs one write. Checkout removes the purchased lines in its own transaction.
+ */
+public class SavedCarts {
+    private static final long FLUSH_INTERVAL_MILLIS = 2 * 1000;
+
+    private static final SavedCarts SHARED = new SavedCarts();
+
+    private final Set<Cart> carts = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService scheduler;
+
+    private SavedCarts() {
+        // The dashboards exit the JVM on close; save the last few seconds of changes on the way out
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flushAll, "saved-carts-exit"));
+    }
+
+    public static SavedCarts getShared() {
+        return SHARED;
+    }
+
+    public Cart open(int customerId) {
+        Cart cart = new Cart(customerId);
+        carts.add(cart);
+        startScheduler();
+        return cart;
+    }
+
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        flushAll();
+    }
+
+    /**
+     * One customer's saved cart. Changes return at once; load, flush and close make database
+     * round trips, so call them off the EDT.
+     */
+    public class Cart {
+        private final int customerId;
+        // Serialises saves, so an older batch can never land after a newer one
+        private final Object saveLock = new Object();
+        // Latest unsaved quantity per item; 0 removes the line
+        private Map<Integer, Integer> pending = new TreeMap<>();
+        private boolean cleared;
+
+        private Cart(int customerId) {
+            this.customerId = customerId;
+        }
+
+        // The saved lines as item_id to quantity, in one query; unsaved changes are written first
+        public Map<Integer, Integer> load() throws SQLException {
+            flush();
+            return CartRepository.findLines(customerId);
+        }
+
+        public synchronized void setQuantity(int itemId, int quantity) {
+            pending.put(itemId, Math.max(quantity, 0));
+        }
+
+        public synchronized void remove(int itemId) {
+            pending.put(itemId, 0);
+        }
+
+        public synchronized void clear() {
+            pending.clear();
+            cleared = true;
+        }
+
+        public void flush() throws SQLException {
+            synchronized (saveLock) {
+                TreeMap<Integer, Integer> changes;
+                boolean clearFirst;
+                synchronized (this) {
+                    if (pending.isEmpty() && !cleared) return;
+                    changes = new TreeMap<>(pending);
+                    clearFirst = cleared;
+                    pending.clear();
+                    cleared = false;
+                }
+                try {
+                    CartRepository.save(customerId, clearFirst, changes);
+                } catch (SQLException | RuntimeException e) {
+                    // Put the batch back under anything newer, to go with the next flush
+                    synchronized (this) {
+                        for (Map.Entry<Integer, Integer> change : changes.entrySet()) {
+                            pending.putIfAbsent(change.getKey(), change.getValue());
+                        }
+                        cleared |= clearFirst;
+                    }
+                    throw e;
+                }
+            }
+        }
+
+        // Saves what is left and stops the background flushes for this cart
+        public void close() throws SQLException {
+            carts.remove(this);
+            flush();
+        }
+    }
+
+    private synchronized void startScheduler() {
+        if (scheduler != null) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "saved-carts");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushAll,
+                FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void flushAll() {
+        for (Cart cart : carts) {
+            try {
+                cart.flush();
+            } catch (SQLException | RuntimeException e) {
+                // Kept pending; tried again on the next tick
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.goldinventory.service;
+
+import com.goldinventory.repository.StockHoldRepository;
+
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Soft, time-bounded holds on stock for items sitting in customers' carts.
+ * Holds live in stock_holds with a server-side expiry. Open sessions are renewed in the
+ * background while they are in use, and expired holds from any terminal are swept here.
+ * Checkout counts other sessions' live holds against stock and consumes its own.
+ */
+public class StockReservations {
+    static final int HOLD_TTL_SECONDS = 10 * 60;
+    private static final long RENEW_INTERVAL_MILLIS = 2 * 60 * 1000;
+    // A cart left untouched this long stops being renewed and its holds lapse
+    private static final long IDLE_LIMIT_MILLIS = 30 * 60 * 1000;
+    private static final long SWEEP_INTERVAL_MILLIS = 30 * 1000;
+    private static final int SWEEP_BATCH = 500;
+
+    private static final StockReservations SHARED = new StockReservations();
+
+    private final Set<Session> sessions = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService scheduler;
+
+    public static StockReservations getShared() {
+        return SHARED;
+    }
+
+    public Session openSession(int customerId) {
+        Session session = new Session(UUID.randomUUID().toString(), customerId);
+        sessions.add(session);
+        startScheduler();
+        return session;
+    }
+
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * One customer's cart. Hold and release calls make a database round trip; call them off the EDT.
+     */
+    public class Session {
+        private final String id;
+        private final int customerId;
+        private volatile long lastActivity = System.currentTimeMillis();
+
+        private Session(String id, int customerId) {
+            this.id = id;
+            this.customerId = customerId;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        // Holds exactly quantity units if they are free and returns the units this session could hold.
+        // When that is less than quantity, no hold is placed and any existing hold is left as it was.
+        public int hold(int itemId, int quantity) throws SQLException {
+            touch();
+            return StockHoldRepository.hold(id, customerId, itemId, quantity, HOLD_TTL_SECONDS);
+        }
+
+        public void release(int itemId) throws SQLException {
+            touch();
+            StockHoldRepository.delete(id, itemId);
+        }
+
+        public void releaseAll() throws SQLException {
+            touch();
+            StockHoldRepository.deleteSession(id);
+        }
+
+        public void touch() {
+            lastActivity = System.currentTimeMillis();
+        }
+
+        // Releases every hold and stops renewing the session
+        public void close() throws SQLException {
+            sessions.remove(this);
+            StockHoldRepository.deleteSession(id);
+        }
+
+        private void renewIfActive() throws SQLException {
+            if (System.currentTimeMillis() - lastActivity < IDLE_LIMIT_MILLIS) {
+                StockHoldRepository.renewSession(id, HOLD_TTL_SECONDS);
+            }
+        }
+    }
+
+    private synchronized void startScheduler() {
+        if (scheduler != null) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "stock-holds");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::renewSessions,
+                RENEW_INTERVAL_MILLIS, RENEW_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::sweepExpired,
+                SWEEP_INTERVAL_MILLIS, SWEEP_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void renewSessions() {
+        for (Session session : sessions) {
+            try {
+                session.renewIfActive();
+            } catch (SQLException | RuntimeException e) {
+                // The TTL leaves several renewal intervals of slack; try again on the next tick
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void sweepExpired() {
+        try {
+            while (StockHoldRepository.deleteExpired(SWEEP_BATCH) == SWEEP_BATCH) {
+                // Keep going in small batches until the backlog is gone
+            }
+        } catch (SQLException | RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.goldinventory.service.async;
+
+import javax.swing.SwingUtilities;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs JDBC work on a small bounded worker pool so the Swing EDT never blocks on MySQL.
+ * Results come back as CompletableFutures; {@link #onEdt} delivers them to the UI thread.
+ */
+public class DataAccessExecutor {
+    public static final Executor EDT = SwingUtilities::invokeLater;
+
+    private static final int WORKER_COUNT = 4;
+    private static final int QUEUE_CAPACITY = 64;
+
+    private static final DataAccessExecutor SHARED = new DataAccessExecutor(WORKER_COUNT, QUEUE_CAPACITY);
+
+    private final ThreadPoolExecutor workers;
+    private final Map<String, QueryMetrics> metrics = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<?>> latestByKey = new ConcurrentHashMap<>();
+
+    public DataAccessExecutor(int workerCount, int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "db-worker-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    public static DataAccessExecutor getShared() {
+        return SHARED;
+    }
+
+    public <T> CompletableFuture<T> submit(String queryName, Callable<T> task) {
+        QueryMetrics queryMetrics = metrics.computeIfAbsent(queryName, QueryMetrics::new);
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> work;
+        try {
+            work = workers.submit(() -> {
+                if (result.isDone()) return; // cancelled while still queued
+                long start = System.nanoTime();
+                try {
+                    T value = task.call();
+                    queryMetrics.recordExecution(System.nanoTime() - start, true);
+                    result.complete(value);
+                } catch (Throwable t) {
+                    queryMetrics.recordExecution(System.nanoTime() - start, false);
+                    result.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queryMetrics.recordRejected();
+            result.completeExceptionally(new RejectedExecutionException(
+                    "Too many pending database requests; please try again", e));
+            return result;
+        }
+        // Not interrupted: a worker inside a JDBC call or waiting on the pool finishes that step, and
+        // its result is dropped because the future is already done
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                queryMetrics.recordCancelled();
+                work.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    // Like submit, but cancels whatever request is still pending under the same key
+    public <T> CompletableFuture<T> submitLatest(String key, String queryName, Callable<T> task) {
+        CompletableFuture<T> result = submit(queryName, task);
+        CompletableFuture<?> previous = latestByKey.put(key, result);
+        if (previous != null) {
+            previous.cancel(false);
+        }
+        result.whenComplete((value, error) -> latestByKey.remove(key, result));
+        return result;
+    }
+
+    // Counters per query name, sorted by name
+    public Map<String, QueryMetrics> getMetrics() {
+        return new TreeMap<>(metrics);
+    }
+
+    public int getQueuedCount() {
+        return workers.getQueue().size();
+    }
+
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    // Runs onSuccess or onError on the EDT; cancelled requests are dropped silently
+    public static <T> CompletableFuture<Void> onEdt(CompletableFuture<T> future,
+                                                    Consumer<? super T> onSuccess,
+                                                    Consumer<Throwable> onError) {
+        return future.handleAsync((value, error) -> {
+            if (error == null) {
+                onSuccess.accept(value);
+            } else {
+                Throwable cause = unwrap(error);
+                if (!(cause instanceof CancellationException)) {
+                    onError.accept(cause);
+                }
+            }
+            return null;
+        }, EDT);
+    }
+
+    public static Throwable unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+}
@@ -0,0 +1,52 @@
+package com.goldinventory.service.async;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and outcome counters for one named query run through {@link DataAccessExecutor}.
+ */
+public class QueryMetrics {
+    private final String name;
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    QueryMetrics(String name) {
+        this.name = name;
+    }
+
+    void recordExecution(long nanos, boolean success) {
+        if (success) completed.increment(); else failed.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    void recordCancelled() { cancelled.increment(); }
+    void recordRejected() { rejected.increment(); }
+
+    public String getName() { return name; }
+    public long getCompleted() { return completed.sum(); }
+    public long getFailed() { return failed.sum(); }
+    public long getCancelled() { return cancelled.sum(); }
+    public long getRejected() { return rejected.sum(); }
+
+    public double getMeanMillis() {
+        long runs = completed.sum() + failed.sum();
+        return runs == 0 ? 0.0 : totalNanos.sum() / (double) runs / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public double getMaxMillis() {
+        return maxNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: ok=%d, failed=%d, cancelled=%d, rejected=%d, mean=%.2fms, max=%.2fms",
+                name, getCompleted(), getFailed(), getCancelled(), getRejected(), getMeanMillis(), getMaxMillis());
+    }
+}
@@ -0,0 +1,141 @@
+package com.goldinventory.service.rates;
+
+import com.goldinventory.model.GoldRate;
+import com.goldinventory.model.Money;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads rates from a properties file, for shops without an online feed and for tests:
+ * <pre>
+ * 24K=7250.00
+ * 22K=6645.00
+ * making=350.00
+ * </pre>
+ * Rates are rupees per gram; making is the per-gram making charge for every purity. The feed can watch
+ * one file, or a directory, in which case any *.properties file written there is read. Editors and copy
+ * tools write a file in several steps, so the file is read once events have stopped for a moment, and
+ * only passed on if its contents differ from the last reading.
+ */
+public class FileRateFeed implements RateFeed {
+    private static final long DEBOUNCE_MILLIS = 200;
+    private static final String MAKING_KEY = "making";
+
+    private final Path directory;
+    private final Path fileName;
+    private WatchService watcher;
+    private byte[] lastContents;
+
+    // path is either the rates file or a directory of them
+    public FileRateFeed(Path path) {
+        if (Files.isDirectory(path)) {
+            directory = path;
+            fileName = null;
+        } else {
+            directory = path.toAbsolutePath().getParent();
+            fileName = path.getFileName();
+        }
+    }
+
+    @Override
+    public synchronized void start(Listener listener) throws IOException {
+        if (watcher != null) throw new IllegalStateException("Feed already started");
+        watcher = directory.getFileSystem().newWatchService();
+        directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        WatchService service = watcher;
+        Thread thread = new Thread(() -> watch(service, listener), "rate-feed-" + directory.getFileName());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (watcher == null) return;
+        try {
+            watcher.close(); // Wakes the watch thread, which then exits
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        watcher = null;
+    }
+
+    private void watch(WatchService service, Listener listener) {
+        Path pending = fileName != null && Files.exists(directory.resolve(fileName))
+                ? directory.resolve(fileName) : null;
+        try {
+            while (true) {
+                // While a read is pending, wait only until events go quiet
+                WatchKey key = pending != null ? service.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS) : service.take();
+                if (key == null) {
+                    read(pending, listener);
+                    pending = null;
+                    continue;
+                }
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        if (fileName != null) pending = directory.resolve(fileName);
+                        continue;
+                    }
+                    Path changed = (Path) event.context();
+                    if (fileName != null ? changed.equals(fileName) : changed.toString().endsWith(".properties")) {
+                        pending = directory.resolve(changed);
+                    }
+                }
+                key.reset();
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // Closed
+        }
+    }
+
+    private void read(Path file, Listener listener) {
+        try {
+            byte[] contents = Files.readAllBytes(file);
+            if (Arrays.equals(contents, lastContents)) return;
+            List<GoldRate> rates = parse(contents);
+            lastContents = contents;
+            listener.ratesReceived(rates);
+        } catch (IOException | IllegalArgumentException e) {
+            // Usually a file caught half-written or removed; the next write is read again
+            e.printStackTrace();
+        }
+    }
+
+    static List<GoldRate> parse(byte[] contents) throws IOException {
+        Properties properties = new Properties();
+        properties.load(new ByteArrayInputStream(contents));
+        String makingText = properties.getProperty(MAKING_KEY);
+        Money making = makingText != null ? Money.parse(makingText) : Money.ZERO;
+        if (making.compareTo(Money.ZERO) < 0) {
+            throw new IllegalArgumentException("Making charge is negative");
+        }
+        List<GoldRate> rates = new ArrayList<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.equals(MAKING_KEY)) continue;
+            String karat = key.endsWith("K") || key.endsWith("k") ? key.substring(0, key.length() - 1) : key;
+            int purity = Integer.parseInt(karat.trim());
+            Money rate = Money.parse(properties.getProperty(key));
+            if (purity <= 0 || purity > 24 || !rate.isPositive()) {
+                throw new IllegalArgumentException("Bad rate " + key + "=" + properties.getProperty(key));
+            }
+            rates.add(new GoldRate(purity, rate, making, null));
+        }
+        if (rates.isEmpty()) {
+            throw new IllegalArgumentException("No rates in file");
+        }
+        return rates;
+    }
+}
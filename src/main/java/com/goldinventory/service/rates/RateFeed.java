@@ -0,0 +1,23 @@
+package com.goldinventory.service.rates;
+
+import com.goldinventory.model.GoldRate;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A source of gold rates. The listener is called on the feed's own thread with every rate the source
+ * quotes, each time the source changes; rates carry no effective time until they are stored.
+ */
+public interface RateFeed extends Closeable {
+
+    interface Listener {
+        void ratesReceived(List<GoldRate> rates);
+    }
+
+    void start(Listener listener) throws IOException;
+
+    @Override
+    void close();
+}
@@ -0,0 +1,62 @@
+package com.goldinventory.service.rates;
+
+import com.goldinventory.model.GoldRate;
+import com.goldinventory.service.PricingService;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Applies the rates a feed delivers. Readings that match the rates in effect are dropped, and readings
+ * that arrive while a reprice is running replace each other, so only the newest is applied next.
+ * Several terminals may ingest the same feed; whichever is first stores the rates and the others
+ * then find them unchanged.
+ */
+public class RateFeedIngestor implements RateFeed.Listener, Closeable {
+    private final RateFeed feed;
+    private final AtomicReference<List<GoldRate>> pending = new AtomicReference<>();
+    private final ExecutorService applier = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "rate-ingest");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public RateFeedIngestor(RateFeed feed) {
+        this.feed = feed;
+    }
+
+    public void start() throws IOException {
+        feed.start(this);
+    }
+
+    @Override
+    public void ratesReceived(List<GoldRate> rates) {
+        if (pending.getAndSet(rates) == null) {
+            applier.execute(this::applyPending);
+        }
+    }
+
+    @Override
+    public void close() {
+        feed.close();
+        applier.shutdownNow();
+    }
+
+    private void applyPending() {
+        List<GoldRate> rates = pending.getAndSet(null);
+        if (rates == null) return;
+        try {
+            // Compared with the stored rates, which another terminal or the admin may have changed
+            if (PricingService.sameRates(rates, PricingService.currentRates())) return;
+            PricingService.applyRates(rates);
+        } catch (SQLException | RuntimeException e) {
+            // The feed only reports changes, so this reading is lost until the source changes again
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.goldinventory.service.search;
+
+import com.goldinventory.model.Money;
+import com.goldinventory.model.Weight;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Match counts per purity, weight band and price band for one search. Each dimension is counted with
+ * every filter applied except its own, so the counts say how many items picking that value would show.
+ */
+public final class CatalogFacets {
+    public static final int MAX_KARAT = 24;
+    // Band edges; band i covers [edge i-1, edge i), and the first and last bands are open-ended
+    private static final long[] WEIGHT_EDGES_MG = {5_000, 10_000, 20_000, 50_000};
+    private static final long[] PRICE_EDGES_PAISE = {25_000_00, 50_000_00, 1_00_000_00, 2_00_000_00};
+
+    public static final int WEIGHT_BANDS = WEIGHT_EDGES_MG.length + 1;
+    public static final int PRICE_BANDS = PRICE_EDGES_PAISE.length + 1;
+
+    private final int[] purityCounts;
+    private final int[] weightCounts;
+    private final int[] priceCounts;
+
+    CatalogFacets(int[] purityCounts, int[] weightCounts, int[] priceCounts) {
+        this.purityCounts = purityCounts;
+        this.weightCounts = weightCounts;
+        this.priceCounts = priceCounts;
+    }
+
+    // Karats with at least one match, highest first
+    public List<Integer> getPurities() {
+        List<Integer> purities = new ArrayList<>();
+        for (int karat = MAX_KARAT; karat > 0; karat--) {
+            if (purityCounts[karat] > 0) purities.add(karat);
+        }
+        return purities;
+    }
+
+    public int getPurityCount(int karat) {
+        return karat > 0 && karat <= MAX_KARAT ? purityCounts[karat] : 0;
+    }
+
+    public int getWeightCount(int band) {
+        return weightCounts[band];
+    }
+
+    public int getPriceCount(int band) {
+        return priceCounts[band];
+    }
+
+    public static CatalogQuery withWeightBand(CatalogQuery query, int band) {
+        return query.withWeightBetween(
+                band == 0 ? null : Weight.ofMilligrams(WEIGHT_EDGES_MG[band - 1]),
+                band == WEIGHT_BANDS - 1 ? null : Weight.ofMilligrams(WEIGHT_EDGES_MG[band] - 1));
+    }
+
+    public static CatalogQuery withPriceBand(CatalogQuery query, int band) {
+        return query.withPriceBetween(
+                band == 0 ? null : Money.ofPaise(PRICE_EDGES_PAISE[band - 1]),
+                band == PRICE_BANDS - 1 ? null : Money.ofPaise(PRICE_EDGES_PAISE[band] - 1));
+    }
+
+    public static String weightBandLabel(int band) {
+        return bandLabel(band, WEIGHT_EDGES_MG, edge -> (edge / Weight.MILLIGRAMS_PER_GRAM) + " g");
+    }
+
+    public static String priceBandLabel(int band) {
+        return bandLabel(band, PRICE_EDGES_PAISE, edge -> "₹" + String.format("%,d", edge / 100));
+    }
+
+    static int weightBand(long milligrams) {
+        return band(WEIGHT_EDGES_MG, milligrams);
+    }
+
+    static int priceBand(long paise) {
+        return band(PRICE_EDGES_PAISE, paise);
+    }
+
+    private static int band(long[] edges, long value) {
+        int band = 0;
+        while (band < edges.length && value >= edges[band]) band++;
+        return band;
+    }
+
+    private interface EdgeFormat {
+        String format(long edge);
+    }
+
+    private static String bandLabel(int band, long[] edges, EdgeFormat format) {
+        if (band == 0) return "Under " + format.format(edges[0]);
+        if (band == edges.length) return format.format(edges[edges.length - 1]) + " and over";
+        return format.format(edges[band - 1]) + " – " + format.format(edges[band]);
+    }
+}
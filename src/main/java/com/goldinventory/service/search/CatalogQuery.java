@@ -0,0 +1,62 @@
+package com.goldinventory.service.search;
+
+import com.goldinventory.model.Money;
+import com.goldinventory.model.Weight;
+
+/**
+ * Immutable catalog search. Every part is optional; null bounds are open and ranges are inclusive.
+ * Text matches names: words of three or more letters anywhere in the name, shorter ones at the
+ * start of a word, and every word must match.
+ */
+public final class CatalogQuery {
+    public static final CatalogQuery ALL = new CatalogQuery("", 0, null, null, null, null, false);
+
+    private final String text;
+    private final int purityKarat;
+    private final Weight minWeight;
+    private final Weight maxWeight;
+    private final Money minPrice;
+    private final Money maxPrice;
+    private final boolean availableOnly;
+
+    private CatalogQuery(String text, int purityKarat, Weight minWeight, Weight maxWeight,
+                         Money minPrice, Money maxPrice, boolean availableOnly) {
+        this.text = text;
+        this.purityKarat = purityKarat;
+        this.minWeight = minWeight;
+        this.maxWeight = maxWeight;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.availableOnly = availableOnly;
+    }
+
+    public CatalogQuery withText(String text) {
+        return new CatalogQuery(text == null ? "" : text, purityKarat, minWeight, maxWeight, minPrice, maxPrice, availableOnly);
+    }
+
+    // 0 for any purity
+    public CatalogQuery withPurity(int purityKarat) {
+        return new CatalogQuery(text, purityKarat, minWeight, maxWeight, minPrice, maxPrice, availableOnly);
+    }
+
+    public CatalogQuery withWeightBetween(Weight min, Weight max) {
+        return new CatalogQuery(text, purityKarat, min, max, minPrice, maxPrice, availableOnly);
+    }
+
+    // Bounds on the price of one piece
+    public CatalogQuery withPriceBetween(Money min, Money max) {
+        return new CatalogQuery(text, purityKarat, minWeight, maxWeight, min, max, availableOnly);
+    }
+
+    public CatalogQuery withAvailableOnly(boolean availableOnly) {
+        return new CatalogQuery(text, purityKarat, minWeight, maxWeight, minPrice, maxPrice, availableOnly);
+    }
+
+    public String getText() { return text; }
+    public int getPurityKarat() { return purityKarat; }
+    public Weight getMinWeight() { return minWeight; }
+    public Weight getMaxWeight() { return maxWeight; }
+    public Money getMinPrice() { return minPrice; }
+    public Money getMaxPrice() { return maxPrice; }
+    public boolean isAvailableOnly() { return availableOnly; }
+}
@@ -0,0 +1,382 @@
+package com.goldinventory.service.search;
+
+import com.goldinventory.model.GoldItem;
+import com.goldinventory.service.GoldItemCatalog;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over the in-memory catalog for search-as-you-type. Every item gets a dense document
+ * slot; names are indexed by trigram, for matches anywhere in a word, and by whole word, for one- and
+ * two-letter prefixes. Filters run over primitive per-slot columns. The index follows the catalog
+ * through its listener: attribute changes are written in place, and a renamed item gets a new slot,
+ * so postings only ever grow at the end and stay sorted. Once dead slots outnumber live ones, the
+ * live slots are re-indexed in order and the dead ones dropped.
+ */
+public class CatalogSearchIndex {
+    private static final int GRAM = 3;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final CatalogSearchIndex SHARED = new CatalogSearchIndex(GoldItemCatalog.getShared());
+
+    private final GoldItemCatalog catalog;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final GoldItemCatalog.Listener listener = this::catalogChanged;
+    private volatile boolean built;
+
+    // Per-slot columns
+    private int slotCount;
+    private int liveCount;
+    private boolean[] live;
+    private int[] itemIds;
+    private String[] names; // Lower-cased
+    private int[] purities;
+    private long[] weightMilligrams;
+    private long[] pricePaise;
+    private int[] quantities;
+
+    private final Map<Integer, Integer> slotByItem = new HashMap<>();
+    private final Map<String, Postings> grams = new HashMap<>();
+    private final NavigableMap<String, Postings> words = new TreeMap<>();
+
+    public CatalogSearchIndex(GoldItemCatalog catalog) {
+        this.catalog = catalog;
+        clear();
+    }
+
+    public static CatalogSearchIndex getShared() {
+        return SHARED;
+    }
+
+    // Loads the catalog if needed and indexes it once; later catalog changes are applied as they happen
+    public void ensureBuilt() throws SQLException {
+        if (built) return;
+        catalog.ensureLoaded();
+        lock.writeLock().lock();
+        try {
+            if (built) return;
+            // Listening first means no change can fall between the snapshot and the first event
+            catalog.addListener(listener);
+            rebuild(catalog.getAll());
+            built = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isBuilt() {
+        return built;
+    }
+
+    // Indexes the given items instead of the catalog's and applies changes passed to catalogChanged
+    void build(Collection<GoldItem> items) {
+        lock.writeLock().lock();
+        try {
+            rebuild(items);
+            built = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Slots in use, live or dead
+    int getSlotCount() {
+        lock.readLock().lock();
+        try {
+            return slotCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Item ids of the matches in ascending order
+    public int[] search(CatalogQuery query) {
+        return query(query).getItemIds();
+    }
+
+    public CatalogSearchResult query(CatalogQuery query) {
+        String[] terms = terms(query.getText());
+        long minWeight = query.getMinWeight() != null ? query.getMinWeight().getMilligrams() : Long.MIN_VALUE;
+        long maxWeight = query.getMaxWeight() != null ? query.getMaxWeight().getMilligrams() : Long.MAX_VALUE;
+        long minPrice = query.getMinPrice() != null ? query.getMinPrice().getPaise() : Long.MIN_VALUE;
+        long maxPrice = query.getMaxPrice() != null ? query.getMaxPrice().getPaise() : Long.MAX_VALUE;
+        int purity = query.getPurityKarat();
+        boolean availableOnly = query.isAvailableOnly();
+        int[] purityCounts = new int[CatalogFacets.MAX_KARAT + 1];
+        int[] weightCounts = new int[CatalogFacets.WEIGHT_BANDS];
+        int[] priceCounts = new int[CatalogFacets.PRICE_BANDS];
+
+        lock.readLock().lock();
+        try {
+            int[] candidates = null;
+            int candidateCount = slotCount;
+            for (String term : terms) {
+                int[] matches = term.length() >= GRAM ? gramMatches(term) : wordPrefixMatches(term);
+                candidates = candidates == null ? matches : intersect(candidates, candidates.length, matches, matches.length);
+                candidateCount = candidates.length;
+                if (candidateCount == 0) break;
+            }
+            int[] result = new int[Math.min(candidateCount, liveCount)];
+            int found = 0;
+            for (int i = 0; i < candidateCount; i++) {
+                int slot = candidates == null ? i : candidates[i];
+                if (!live[slot] || (availableOnly && quantities[slot] <= 0)) continue;
+                boolean purityOk = purity == 0 || purities[slot] == purity;
+                boolean weightOk = weightMilligrams[slot] >= minWeight && weightMilligrams[slot] <= maxWeight;
+                boolean priceOk = pricePaise[slot] >= minPrice && pricePaise[slot] <= maxPrice;
+                if (weightOk && priceOk && purities[slot] > 0 && purities[slot] <= CatalogFacets.MAX_KARAT) {
+                    purityCounts[purities[slot]]++;
+                }
+                if (purityOk && priceOk) weightCounts[CatalogFacets.weightBand(weightMilligrams[slot])]++;
+                if (purityOk && weightOk) priceCounts[CatalogFacets.priceBand(pricePaise[slot])]++;
+                if (purityOk && weightOk && priceOk) result[found++] = itemIds[slot];
+            }
+            int[] ids = Arrays.copyOf(result, found);
+            Arrays.sort(ids);
+            return new CatalogSearchResult(ids, new CatalogFacets(purityCounts, weightCounts, priceCounts));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void catalogChanged(List<GoldItem> upserted, List<Integer> removedIds) {
+        if (!built) return;
+        lock.writeLock().lock();
+        try {
+            for (GoldItem item : upserted) {
+                Integer slot = slotByItem.get(item.getItemId());
+                if (slot != null && names[slot].equals(normalize(item.getName()))) {
+                    setAttributes(slot, item);
+                } else {
+                    if (slot != null) kill(slot);
+                    add(item);
+                }
+            }
+            for (int itemId : removedIds) {
+                Integer slot = slotByItem.remove(itemId);
+                if (slot != null) kill(slot);
+            }
+            if (slotCount - liveCount > Math.max(liveCount, INITIAL_CAPACITY)) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void rebuild(Collection<GoldItem> items) {
+        clear();
+        for (GoldItem item : items) {
+            add(item);
+        }
+    }
+
+    // Re-indexes the live slots in slot order, so postings stay sorted, and drops the dead ones
+    private void compact() {
+        int oldCount = slotCount;
+        boolean[] oldLive = live;
+        int[] oldItemIds = itemIds;
+        String[] oldNames = names;
+        int[] oldPurities = purities;
+        long[] oldWeights = weightMilligrams;
+        long[] oldPrices = pricePaise;
+        int[] oldQuantities = quantities;
+        clear();
+        for (int old = 0; old < oldCount; old++) {
+            if (!oldLive[old]) continue;
+            int slot = add(oldItemIds[old], oldNames[old]);
+            purities[slot] = oldPurities[old];
+            weightMilligrams[slot] = oldWeights[old];
+            pricePaise[slot] = oldPrices[old];
+            quantities[slot] = oldQuantities[old];
+        }
+    }
+
+    private void clear() {
+        slotCount = 0;
+        liveCount = 0;
+        live = new boolean[INITIAL_CAPACITY];
+        itemIds = new int[INITIAL_CAPACITY];
+        names = new String[INITIAL_CAPACITY];
+        purities = new int[INITIAL_CAPACITY];
+        weightMilligrams = new long[INITIAL_CAPACITY];
+        pricePaise = new long[INITIAL_CAPACITY];
+        quantities = new int[INITIAL_CAPACITY];
+        slotByItem.clear();
+        grams.clear();
+        words.clear();
+    }
+
+    private void add(GoldItem item) {
+        setAttributes(add(item.getItemId(), normalize(item.getName())), item);
+    }
+
+    // Takes the next slot for the item and posts its name; returns the slot
+    private int add(int itemId, String name) {
+        if (slotCount == live.length) grow();
+        int slot = slotCount++;
+        live[slot] = true;
+        liveCount++;
+        itemIds[slot] = itemId;
+        names[slot] = name;
+        slotByItem.put(itemId, slot);
+        for (String word : terms(name)) {
+            words.computeIfAbsent(word, w -> new Postings()).add(slot);
+            for (int i = 0; i + GRAM <= word.length(); i++) {
+                grams.computeIfAbsent(word.substring(i, i + GRAM), g -> new Postings()).add(slot);
+            }
+        }
+        return slot;
+    }
+
+    private void setAttributes(int slot, GoldItem item) {
+        purities[slot] = item.getPurityKarat();
+        weightMilligrams[slot] = item.getWeight().getMilligrams();
+        pricePaise[slot] = item.getTotalPrice().getPaise();
+        quantities[slot] = item.getQuantity();
+    }
+
+    // The slot stays in the postings; searches skip it until the next rebuild
+    private void kill(int slot) {
+        if (!live[slot]) return;
+        live[slot] = false;
+        liveCount--;
+    }
+
+    private void grow() {
+        int capacity = live.length * 2;
+        live = Arrays.copyOf(live, capacity);
+        itemIds = Arrays.copyOf(itemIds, capacity);
+        names = Arrays.copyOf(names, capacity);
+        purities = Arrays.copyOf(purities, capacity);
+        weightMilligrams = Arrays.copyOf(weightMilligrams, capacity);
+        pricePaise = Arrays.copyOf(pricePaise, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+    }
+
+    // Slots whose name contains the term. Sharing every trigram is necessary but, beyond three
+    // letters, not sufficient, so longer terms are confirmed against the name
+    private int[] gramMatches(String term) {
+        List<Postings> lists = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i + GRAM <= term.length(); i++) {
+            String gram = term.substring(i, i + GRAM);
+            if (!seen.add(gram)) continue;
+            Postings postings = grams.get(gram);
+            if (postings == null) return new int[0];
+            lists.add(postings);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+        Postings smallest = lists.get(0);
+        int[] slots = Arrays.copyOf(smallest.slots, smallest.size);
+        for (int i = 1; i < lists.size() && slots.length > 0; i++) {
+            slots = intersect(slots, slots.length, lists.get(i).slots, lists.get(i).size);
+        }
+        if (term.length() == GRAM) return slots;
+        int kept = 0;
+        for (int slot : slots) {
+            if (names[slot].contains(term)) slots[kept++] = slot;
+        }
+        return Arrays.copyOf(slots, kept);
+    }
+
+    // Slots with a word starting with prefix
+    private int[] wordPrefixMatches(String prefix) {
+        Map<String, Postings> matching = words.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        if (matching.size() == 1) {
+            Postings postings = matching.values().iterator().next();
+            return Arrays.copyOf(postings.slots, postings.size);
+        }
+        BitSet union = new BitSet(slotCount);
+        for (Postings postings : matching.values()) {
+            for (int i = 0; i < postings.size; i++) {
+                union.set(postings.slots[i]);
+            }
+        }
+        int[] slots = new int[union.cardinality()];
+        int n = 0;
+        for (int slot = union.nextSetBit(0); slot >= 0; slot = union.nextSetBit(slot + 1)) {
+            slots[n++] = slot;
+        }
+        return slots;
+    }
+
+    // Both inputs sorted; binary-searches the longer one when the lengths are far apart
+    private static int[] intersect(int[] a, int aLength, int[] b, int bLength) {
+        if (aLength > bLength) {
+            return intersect(b, bLength, a, aLength);
+        }
+        int[] out = new int[aLength];
+        int n = 0;
+        if (bLength > aLength * 8) {
+            int from = 0;
+            for (int i = 0; i < aLength; i++) {
+                int found = Arrays.binarySearch(b, from, bLength, a[i]);
+                if (found >= 0) {
+                    out[n++] = a[i];
+                    from = found + 1;
+                } else {
+                    from = -found - 1;
+                }
+            }
+        } else {
+            int i = 0, j = 0;
+            while (i < aLength && j < bLength) {
+                if (a[i] < b[j]) i++;
+                else if (a[i] > b[j]) j++;
+                else {
+                    out[n++] = a[i];
+                    i++;
+                    j++;
+                }
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.toLowerCase(Locale.ROOT);
+    }
+
+    // Distinct lower-cased words, split on anything that is not a letter or digit
+    static String[] terms(String text) {
+        Set<String> terms = new HashSet<>();
+        String normalized = normalize(text);
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                terms.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return terms.toArray(new String[0]);
+    }
+
+    // Sorted, append-only list of slots
+    private static final class Postings {
+        int[] slots = new int[4];
+        int size;
+
+        void add(int slot) {
+            if (size > 0 && slots[size - 1] == slot) return; // Same word or trigram twice in one name
+            if (size == slots.length) slots = Arrays.copyOf(slots, size * 2);
+            slots[size++] = slot;
+        }
+    }
+}
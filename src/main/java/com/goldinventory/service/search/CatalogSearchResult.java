@@ -0,0 +1,17 @@
+package com.goldinventory.service.search;
+
+/**
+ * Item ids matching a query, in ascending order, with the facet counts around it.
+ */
+public final class CatalogSearchResult {
+    private final int[] itemIds;
+    private final CatalogFacets facets;
+
+    CatalogSearchResult(int[] itemIds, CatalogFacets facets) {
+        this.itemIds = itemIds;
+        this.facets = facets;
+    }
+
+    public int[] getItemIds() { return itemIds; }
+    public CatalogFacets getFacets() { return facets; }
+}
@@ -15,9 +15,6 @@ import java.awt.geom.*;
 import java.awt.image.BufferedImage;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.util.Properties;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -775,24 +772,7 @@ public class LoginFrame extends JFrame {
     }
 
     private boolean registerUser(String username, String password) {
-        String sql = "INSERT INTO users (username, password, role) VALUES (?, ?, 'customer')";
-        try (Connection conn = com.goldinventory.database.DBConnection.getConnection()) {
-            try (PreparedStatement check = conn.prepareStatement("SELECT user_id FROM users WHERE username = ?")) {
-                check.setString(1, username);
-                try (ResultSet rs = check.executeQuery()) {
-                    if (rs.next()) return false;
-                }
-            }
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, username);
-                stmt.setString(2, AuthService.hashPassword(password));
-                stmt.executeUpdate();
-                return true;
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-            return false;
-        }
+        return AuthService.register(username, password, "customer");
     }
 
     private void saveRememberedUsername(String username) {
@@ -1,19 +1,47 @@
 package com.goldinventory.ui.admin;
 
+import com.goldinventory.model.GoldItem;
+import com.goldinventory.model.GoldRate;
+import com.goldinventory.model.Money;
+import com.goldinventory.model.SaleRecord;
+import com.goldinventory.model.SalesPeriodTotals;
+import com.goldinventory.model.SalesRanking;
+import com.goldinventory.model.Weight;
+import com.goldinventory.repository.AnalyticsRepository;
+import com.goldinventory.repository.GoldItemRepository;
+import com.goldinventory.repository.SalesSummaryRepository;
 import com.goldinventory.service.AuthService;
+import com.goldinventory.service.CsvExporter;
 import com.goldinventory.service.ExcelExporter;
-import com.goldinventory.database.DBConnection;
+import com.goldinventory.service.ExportJob;
+import com.goldinventory.service.ExportJobQueue;
+import com.goldinventory.service.GoldItemCatalog;
+import com.goldinventory.service.ItemEditService;
+import com.goldinventory.service.PricingService;
+import com.goldinventory.service.SalesAnalytics;
+import com.goldinventory.service.async.DataAccessExecutor;
+import com.goldinventory.service.async.QueryMetrics;
+import com.goldinventory.ui.table.PagedTableModel;
+import com.goldinventory.ui.table.SalesPageSources;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.plaf.nimbus.NimbusLookAndFeel;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.sql.*;
+import java.math.RoundingMode;
 import java.text.NumberFormat;
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
 
 public class AdminDashboardFrame extends JFrame {
     private AuthService.User currentUser;
@@ -27,22 +55,56 @@ public class AdminDashboardFrame extends JFrame {
     private static final Font BUTTON_FONT = new Font("Segoe UI", Font.BOLD, 14);
 
     private JTable goldItemsTable;
-    private DefaultTableModel goldItemsModel;
-    private JButton addItemBtn, editItemBtn, deleteItemBtn, refreshItemsBtn;
+    private GoldItemsTableModel goldItemsModel;
+    // Catalog deltas arrive on background threads and are applied to the table on the EDT
+    private final GoldItemCatalog.Listener catalogListener = (upserted, removedIds) ->
+        SwingUtilities.invokeLater(() -> goldItemsModel.applyChanges(upserted, removedIds));
+    private JButton addItemBtn, editItemBtn, deleteItemBtn, refreshItemsBtn, goldRatesBtn;
+    // Rates in effect, keyed by karat; used to pre-fill prices in the add dialog
+    private Map<Integer, GoldRate> currentRates = Collections.emptyMap();
     private JTable salesTable;
-    private DefaultTableModel salesModel;
+    private PagedTableModel<SaleRecord> salesModel;
     private JDatePicker datePicker;
-    private JButton exportExcelBtn, refreshSalesBtn;
+    private JButton exportExcelBtn, exportRangeBtn, refreshSalesBtn;
     private JLabel totalSalesLabel;
+    private JPanel analyticsPanel;
+    private JDatePicker analyticsFromPicker, analyticsToPicker;
+    private JComboBox<String> granularityCombo;
+    private JSpinner topNSpinner;
+    private JLabel analyticsSummaryLabel;
+    private DefaultTableModel periodsModel, topItemsModel, topCustomersModel;
+    private boolean analyticsLoaded;
+    private JPanel exportJobsPanel;
+    private JTable exportJobsTable;
+    private ExportJobsTableModel exportJobsModel;
+    // Job updates arrive on export workers; the history table is refreshed on the EDT
+    private final ExportJobQueue.Listener exportJobListener = job ->
+        SwingUtilities.invokeLater(() -> {
+            if (exportJobsModel.getRowCount() > 0 && exportJobsModel.getJobAt(0).getId() >= job.getId()) {
+                exportJobsModel.jobChanged(job);
+            } else {
+                exportJobsModel.setJobs(ExportJobQueue.getShared().getJobs());
+            }
+        });
 
     public AdminDashboardFrame(AuthService.User user) {
         this.currentUser = user;
         initLookAndFeel();
         initializeUI();
+        GoldItemCatalog.getShared().addListener(catalogListener);
+        ExportJobQueue.getShared().addListener(exportJobListener);
         loadGoldItems();
+        loadGoldRates();
         loadSalesReport(new Date());
     }
 
+    @Override
+    public void dispose() {
+        GoldItemCatalog.getShared().removeListener(catalogListener);
+        ExportJobQueue.getShared().removeListener(exportJobListener);
+        super.dispose();
+    }
+
     private void initLookAndFeel() {
         try {
             UIManager.setLookAndFeel(new NimbusLookAndFeel());
@@ -66,8 +128,14 @@ public class AdminDashboardFrame extends JFrame {
             dispose();
             new com.goldinventory.ui.LoginFrame().setVisible(true);
         });
+        JButton queryStatsBtn = createStyledButton("Query Stats", DARK_NAVY, GOLD);
+        queryStatsBtn.addActionListener(e -> showQueryStatsDialog());
+        JPanel headerButtons = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
+        headerButtons.setOpaque(false);
+        headerButtons.add(queryStatsBtn);
+        headerButtons.add(logoutBtn);
         header.add(titleLabel, BorderLayout.WEST);
-        header.add(logoutBtn, BorderLayout.EAST);
+        header.add(headerButtons, BorderLayout.EAST);
 
         tabbedPane = new JTabbedPane();
         tabbedPane.setFont(new Font("Segoe UI", Font.BOLD, 16));
@@ -75,6 +143,14 @@ public class AdminDashboardFrame extends JFrame {
         tabbedPane.setForeground(Color.WHITE);
         tabbedPane.addTab("Manage Gold Items", createGoldItemsPanel());
         tabbedPane.addTab("Sales Report", createSalesReportPanel());
+        tabbedPane.addTab("Analytics", createAnalyticsPanel());
+        tabbedPane.addTab("Export Jobs", createExportJobsPanel());
+        // Aggregates are only computed once somebody looks at them
+        tabbedPane.addChangeListener(e -> {
+            if (tabbedPane.getSelectedComponent() == analyticsPanel && !analyticsLoaded) {
+                loadAnalytics(false);
+            }
+        });
 
         getContentPane().add(header, BorderLayout.NORTH);
         getContentPane().add(tabbedPane, BorderLayout.CENTER);
@@ -85,14 +161,7 @@ public class AdminDashboardFrame extends JFrame {
         panel.setBorder(new EmptyBorder(15, 15, 15, 15));
         panel.setBackground(LIGHT_GRAY);
 
-        // Added "Qty" column
-        String[] columns = {"ID", "Name", "Weight (g)", "Purity (K)", "Price/Gram", "Total Price", "Qty", "Status"};
-        goldItemsModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        goldItemsModel = new GoldItemsTableModel();
         goldItemsTable = new JTable(goldItemsModel);
         goldItemsTable.setFont(TABLE_FONT);
         goldItemsTable.setRowHeight(28);
@@ -121,14 +190,17 @@ public class AdminDashboardFrame extends JFrame {
         editItemBtn = createStyledButton("Edit Item", new Color(255, 165, 0), Color.WHITE);
         deleteItemBtn = createStyledButton("Delete Item", new Color(220, 20, 60), Color.WHITE);
         refreshItemsBtn = createStyledButton("Refresh", new Color(0, 191, 255), Color.WHITE);
+        goldRatesBtn = createStyledButton("Gold Rates...", DARK_NAVY, GOLD);
         buttonPanel.add(addItemBtn);
         buttonPanel.add(editItemBtn);
         buttonPanel.add(deleteItemBtn);
         buttonPanel.add(refreshItemsBtn);
+        buttonPanel.add(goldRatesBtn);
         addItemBtn.addActionListener(e -> showAddItemDialog());
         editItemBtn.addActionListener(e -> showEditItemDialog());
         deleteItemBtn.addActionListener(e -> deleteSelectedItem());
-        refreshItemsBtn.addActionListener(e -> loadGoldItems());
+        refreshItemsBtn.addActionListener(e -> refreshGoldItems());
+        goldRatesBtn.addActionListener(e -> showGoldRatesDialog());
 
         panel.add(scrollPane, BorderLayout.CENTER);
         panel.add(buttonPanel, BorderLayout.SOUTH);
@@ -150,14 +222,21 @@ public class AdminDashboardFrame extends JFrame {
         exportExcelBtn = createStyledButton("Export to Excel", GOLD, DARK_NAVY);
         controlPanel.add(refreshSalesBtn);
         controlPanel.add(exportExcelBtn);
+        exportRangeBtn = createStyledButton("Export Range...", GOLD, DARK_NAVY);
+        controlPanel.add(exportRangeBtn);
 
         String[] columns = {"Sale ID", "Customer ID", "Item Name", "Weight (g)", "Purity (K)", "Total Amount", "Sale Date"};
-        salesModel = new DefaultTableModel(columns, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
+        salesModel = new PagedTableModel<>(columns, (sale, column) -> {
+            switch (column) {
+                case 0: return sale.getSaleId();
+                case 1: return sale.getCustomerId();
+                case 2: return sale.getItemName();
+                case 3: return sale.getWeight();
+                case 4: return sale.getPurityKarat();
+                case 5: return sale.getTotalAmount();
+                default: return java.sql.Date.valueOf(sale.getSaleDate());
             }
-        };
+        });
         salesTable = new JTable(salesModel);
         salesTable.setFont(TABLE_FONT);
         salesTable.setRowHeight(28);
@@ -186,11 +265,8 @@ public class AdminDashboardFrame extends JFrame {
         bottom.add(totalSalesLabel);
 
         refreshSalesBtn.addActionListener(e -> loadSalesReport(datePicker.getDate()));
-        exportExcelBtn.addActionListener(e -> {
-            if (ExcelExporter.exportSalesToExcel(datePicker.getDate())) {
-                JOptionPane.showMessageDialog(this, "Export completed successfully!");
-            }
-        });
+        exportExcelBtn.addActionListener(e -> exportSalesForDay(datePicker.getDate()));
+        exportRangeBtn.addActionListener(e -> showRangeExportDialog());
 
         panel.add(controlPanel, BorderLayout.NORTH);
         panel.add(scrollPane, BorderLayout.CENTER);
@@ -198,6 +274,262 @@ public class AdminDashboardFrame extends JFrame {
         return panel;
     }
 
+    private void showRangeExportDialog() {
+        JDatePicker fromPicker = new JDatePicker();
+        fromPicker.setDate(datePicker.getDate());
+        JDatePicker toPicker = new JDatePicker();
+        toPicker.setDate(datePicker.getDate());
+        JComboBox<String> formatCombo = new JComboBox<>(new String[]{"Excel (.xlsx)", "CSV", "CSV, gzip (.csv.gz)"});
+        JComboBox<String> sheetCombo = new JComboBox<>(new String[]{"One sheet per day", "One sheet per month"});
+        formatCombo.addActionListener(e -> sheetCombo.setEnabled(formatCombo.getSelectedIndex() == 0));
+
+        JPanel panel = new JPanel(new GridLayout(4, 2, 10, 10));
+        panel.add(new JLabel("From:"));
+        panel.add(fromPicker);
+        panel.add(new JLabel("To:"));
+        panel.add(toPicker);
+        panel.add(new JLabel("Format:"));
+        panel.add(formatCombo);
+        panel.add(new JLabel("Sheets:"));
+        panel.add(sheetCombo);
+
+        int result = JOptionPane.showConfirmDialog(this, panel, "Export Sales Range",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (result != JOptionPane.OK_OPTION) return;
+
+        LocalDate from = toLocalDate(fromPicker.getDate());
+        LocalDate to = toLocalDate(toPicker.getDate());
+        if (to.isBefore(from)) {
+            JOptionPane.showMessageDialog(this, "The end date is before the start date.");
+            return;
+        }
+        int format = formatCombo.getSelectedIndex();
+        ExcelExporter.Partition partition = sheetCombo.getSelectedIndex() == 0
+                ? ExcelExporter.Partition.DAY : ExcelExporter.Partition.MONTH;
+
+        String extension = format == 0 ? ".xlsx" : format == 1 ? ".csv" : ".csv.gz";
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setSelectedFile(new java.io.File("sales_" + from + "_to_" + to + extension));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        java.io.File file = fileChooser.getSelectedFile();
+
+        if (format != 0) {
+            boolean gzip = format == 2;
+            submitExport("Sales " + from + " to " + to + (gzip ? " (CSV, gzip)" : " (CSV)"), file,
+                monitor -> CsvExporter.exportSales(from, to, file, gzip, monitor));
+            return;
+        }
+        String sheets = partition == ExcelExporter.Partition.DAY ? "daily" : "monthly";
+        submitExport("Sales " + from + " to " + to + " (" + sheets + ")", file,
+            monitor -> ExcelExporter.exportSalesRange(from, to, partition, file, monitor));
+    }
+
+    private void exportSalesForDay(Date date) {
+        LocalDate saleDate = toLocalDate(date);
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setSelectedFile(new java.io.File("sales_" + saleDate + ".xlsx"));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        java.io.File file = fileChooser.getSelectedFile();
+        submitExport("Sales " + saleDate, file, monitor -> ExcelExporter.exportSales(
+            saleDate, file, ExcelExporter.DEFAULT_ROW_WINDOW, true, monitor));
+    }
+
+    // Exports run on the export queue; progress and results show up in the Export Jobs tab
+    private void submitExport(String description, java.io.File file, ExportJob.Task task) {
+        try {
+            ExportJobQueue.getShared().submit(description, file, task);
+            tabbedPane.setSelectedComponent(exportJobsPanel);
+        } catch (RejectedExecutionException e) {
+            JOptionPane.showMessageDialog(this, e.getMessage(), "Export Queue Full", JOptionPane.WARNING_MESSAGE);
+        }
+    }
+
+    private JPanel createAnalyticsPanel() {
+        analyticsPanel = new JPanel(new BorderLayout(10, 10));
+        analyticsPanel.setBorder(new EmptyBorder(15, 15, 15, 15));
+        analyticsPanel.setBackground(LIGHT_GRAY);
+
+        JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 0));
+        controlPanel.setBackground(LIGHT_GRAY);
+        analyticsFromPicker = new JDatePicker();
+        analyticsFromPicker.setDate(java.sql.Date.valueOf(LocalDate.now().minusDays(29)));
+        analyticsToPicker = new JDatePicker();
+        granularityCombo = new JComboBox<>(new String[]{"Daily", "Weekly", "Monthly"});
+        topNSpinner = new JSpinner(new SpinnerNumberModel(10, 1, 100, 1));
+        JButton refreshAnalyticsBtn = createStyledButton("Refresh", new Color(0, 191, 255), Color.WHITE);
+        refreshAnalyticsBtn.addActionListener(e -> loadAnalytics(true));
+        controlPanel.add(new JLabel("From:"));
+        controlPanel.add(analyticsFromPicker);
+        controlPanel.add(new JLabel("To:"));
+        controlPanel.add(analyticsToPicker);
+        controlPanel.add(new JLabel("Group by:"));
+        controlPanel.add(granularityCombo);
+        controlPanel.add(new JLabel("Top:"));
+        controlPanel.add(topNSpinner);
+        controlPanel.add(refreshAnalyticsBtn);
+
+        periodsModel = readOnlyModel("Period", "Sales", "Units", "Grams", "Revenue");
+        topItemsModel = readOnlyModel("#", "Item", "Sales", "Units", "Revenue");
+        topCustomersModel = readOnlyModel("#", "Customer", "Purchases", "Units", "Revenue");
+        JPanel tables = new JPanel(new GridLayout(1, 3, 10, 0));
+        tables.setBackground(LIGHT_GRAY);
+        tables.add(createAnalyticsTable("Revenue by Period", periodsModel));
+        tables.add(createAnalyticsTable("Top Items", topItemsModel));
+        tables.add(createAnalyticsTable("Top Customers", topCustomersModel));
+
+        analyticsSummaryLabel = new JLabel(" ");
+        analyticsSummaryLabel.setFont(HEADER_FONT);
+
+        analyticsPanel.add(controlPanel, BorderLayout.NORTH);
+        analyticsPanel.add(tables, BorderLayout.CENTER);
+        analyticsPanel.add(analyticsSummaryLabel, BorderLayout.SOUTH);
+        return analyticsPanel;
+    }
+
+    private JScrollPane createAnalyticsTable(String title, DefaultTableModel model) {
+        JTable table = new JTable(model);
+        table.setFont(TABLE_FONT);
+        table.setRowHeight(28);
+        table.getTableHeader().setFont(BUTTON_FONT);
+        table.getTableHeader().setBackground(DARK_NAVY);
+        table.getTableHeader().setForeground(GOLD);
+        table.setGridColor(DARK_NAVY);
+        table.setSelectionBackground(GOLD);
+        table.setSelectionForeground(DARK_NAVY);
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.setBorder(BorderFactory.createTitledBorder(title));
+        return scrollPane;
+    }
+
+    private static DefaultTableModel readOnlyModel(String... columns) {
+        return new DefaultTableModel(columns, 0) {
+            @Override public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+    }
+
+    // The three aggregates load independently on the data-access workers; fresh skips the cache
+    private void loadAnalytics(boolean fresh) {
+        LocalDate from = toLocalDate(analyticsFromPicker.getDate());
+        LocalDate to = toLocalDate(analyticsToPicker.getDate());
+        if (to.isBefore(from)) {
+            JOptionPane.showMessageDialog(this, "The end date is before the start date.");
+            return;
+        }
+        AnalyticsRepository.Granularity granularity =
+                AnalyticsRepository.Granularity.values()[granularityCombo.getSelectedIndex()];
+        int topN = (Integer) topNSpinner.getValue();
+        SalesAnalytics analytics = SalesAnalytics.getShared();
+        if (fresh) analytics.invalidate();
+        analyticsLoaded = true;
+        analyticsSummaryLabel.setText("Loading...");
+        NumberFormat fmt = NumberFormat.getCurrencyInstance(new Locale("en", "IN"));
+
+        DataAccessExecutor.onEdt(
+            DataAccessExecutor.getShared().submitLatest("admin.analytics.periods", "analytics.totalsByPeriod",
+                () -> analytics.totalsByPeriod(from, to, granularity)),
+            periods -> {
+                periodsModel.setRowCount(0);
+                Money revenue = Money.ZERO;
+                Weight grams = Weight.ZERO;
+                int units = 0;
+                for (SalesPeriodTotals period : periods) {
+                    periodsModel.addRow(new Object[]{period.getPeriodStart(), period.getSaleCount(), period.getUnits(),
+                        period.getWeightSold(), fmt.format(period.getRevenue().toBigDecimal())});
+                    revenue = revenue.plus(period.getRevenue());
+                    grams = grams.plus(period.getWeightSold());
+                    units += period.getUnits();
+                }
+                analyticsSummaryLabel.setText("Revenue: " + fmt.format(revenue.toBigDecimal())
+                    + "   ·   Units: " + units + "   ·   Gold sold: " + grams + " g");
+            },
+            e -> {
+                analyticsSummaryLabel.setText(" ");
+                JOptionPane.showMessageDialog(this, "Error loading analytics: " + e.getMessage());
+            });
+        DataAccessExecutor.onEdt(
+            DataAccessExecutor.getShared().submitLatest("admin.analytics.items", "analytics.topItems",
+                () -> analytics.topItems(from, to, topN)),
+            items -> fillRanking(topItemsModel, items, fmt),
+            e -> JOptionPane.showMessageDialog(this, "Error loading top items: " + e.getMessage()));
+        DataAccessExecutor.onEdt(
+            DataAccessExecutor.getShared().submitLatest("admin.analytics.customers", "analytics.topCustomers",
+                () -> analytics.topCustomers(from, to, topN)),
+            customers -> fillRanking(topCustomersModel, customers, fmt),
+            e -> JOptionPane.showMessageDialog(this, "Error loading top customers: " + e.getMessage()));
+    }
+
+    private static void fillRanking(DefaultTableModel model, List<SalesRanking> rankings, NumberFormat fmt) {
+        model.setRowCount(0);
+        int rank = 1;
+        for (SalesRanking ranking : rankings) {
+            model.addRow(new Object[]{rank++, ranking.getLabel(), ranking.getSaleCount(), ranking.getUnits(),
+                fmt.format(ranking.getRevenue().toBigDecimal())});
+        }
+    }
+
+    private JPanel createExportJobsPanel() {
+        JPanel panel = new JPanel(new BorderLayout(10, 10));
+        exportJobsPanel = panel;
+        panel.setBorder(new EmptyBorder(15, 15, 15, 15));
+        panel.setBackground(LIGHT_GRAY);
+
+        exportJobsModel = new ExportJobsTableModel();
+        exportJobsModel.setJobs(ExportJobQueue.getShared().getJobs());
+        exportJobsTable = new JTable(exportJobsModel);
+        exportJobsTable.setFont(TABLE_FONT);
+        exportJobsTable.setRowHeight(28);
+        exportJobsTable.getTableHeader().setFont(BUTTON_FONT);
+        exportJobsTable.getTableHeader().setBackground(DARK_NAVY);
+        exportJobsTable.getTableHeader().setForeground(GOLD);
+        exportJobsTable.setGridColor(DARK_NAVY);
+        exportJobsTable.setSelectionBackground(GOLD);
+        exportJobsTable.setSelectionForeground(DARK_NAVY);
+        exportJobsTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+
+        JButton cancelJobBtn = createStyledButton("Cancel Export", Color.RED, Color.WHITE);
+        cancelJobBtn.addActionListener(e -> {
+            int row = exportJobsTable.getSelectedRow();
+            if (row == -1) {
+                JOptionPane.showMessageDialog(this, "Please select an export to cancel");
+                return;
+            }
+            ExportJob job = exportJobsModel.getJobAt(row);
+            if (job.isFinished()) {
+                JOptionPane.showMessageDialog(this, "This export has already finished");
+                return;
+            }
+            job.cancel();
+        });
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 15, 10));
+        buttonPanel.setBackground(LIGHT_GRAY);
+        buttonPanel.add(cancelJobBtn);
+
+        panel.add(new JScrollPane(exportJobsTable), BorderLayout.CENTER);
+        panel.add(buttonPanel, BorderLayout.SOUTH);
+        return panel;
+    }
+
+    // Latency and outcome counts for every query run through the data-access workers since startup
+    private void showQueryStatsDialog() {
+        DataAccessExecutor executor = DataAccessExecutor.getShared();
+        DefaultTableModel model = readOnlyModel("Query", "OK", "Failed", "Cancelled", "Rejected", "Mean (ms)", "Max (ms)");
+        for (QueryMetrics metrics : executor.getMetrics().values()) {
+            model.addRow(new Object[]{metrics.getName(), metrics.getCompleted(), metrics.getFailed(),
+                metrics.getCancelled(), metrics.getRejected(),
+                String.format("%.1f", metrics.getMeanMillis()), String.format("%.1f", metrics.getMaxMillis())});
+        }
+        JScrollPane table = createAnalyticsTable("Queries (" + executor.getQueuedCount() + " waiting)", model);
+        table.setPreferredSize(new Dimension(800, 400));
+        JOptionPane.showMessageDialog(this, table, "Query Stats", JOptionPane.PLAIN_MESSAGE);
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
     private JButton createStyledButton(String text, Color bg, Color fg) {
         JButton button = new JButton(text);
         button.setBackground(bg);
@@ -208,64 +540,135 @@ public class AdminDashboardFrame extends JFrame {
         return button;
     }
 
+    // Full load; the snapshot is taken on the EDT so no queued catalog delta can be lost
     private void loadGoldItems() {
-        goldItemsModel.setRowCount(0);
-        // Added quantity to SELECT
-        String sql = "SELECT item_id, name, weight_grams, purity_karat, price_per_gram, total_price, quantity, status FROM gold_items ORDER BY item_id";
-        try (Connection conn = DBConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                goldItemsModel.addRow(new Object[]{
-                    rs.getInt("item_id"),
-                    rs.getString("name"),
-                    rs.getDouble("weight_grams"),
-                    rs.getInt("purity_karat"),
-                    rs.getDouble("price_per_gram"),
-                    rs.getDouble("total_price"),
-                    rs.getInt("quantity"), // ✅ Quantity added
-                    rs.getString("status")
-                });
+        DataAccessExecutor.onEdt(
+            DataAccessExecutor.getShared().submitLatest("admin.goldItems", "gold_items.all", () -> {
+                GoldItemCatalog.getShared().ensureLoaded();
+                return null;
+            }),
+            ignored -> goldItemsModel.setItems(GoldItemCatalog.getShared().getAll()),
+            e -> JOptionPane.showMessageDialog(this, "Error loading gold items: " + e.getMessage()));
+    }
+
+    // Delta refresh: only rows changed since the catalog watermark reach the table, via catalogListener
+    private void refreshGoldItems() {
+        if (!GoldItemCatalog.getShared().isLoaded()) {
+            loadGoldItems();
+            return;
+        }
+        DataAccessExecutor.onEdt(
+            DataAccessExecutor.getShared().submitLatest("admin.goldItems", "gold_items.delta", () -> {
+                GoldItemCatalog.getShared().pollChanges();
+                return null;
+            }),
+            ignored -> {},
+            e -> JOptionPane.showMessageDialog(this, "Error refreshing gold items: " + e.getMessage()));
+    }
+
+    private void loadGoldRates() {
+        DataAccessExecutor.onEdt(
+            DataAccessExecutor.getShared().submitLatest("admin.goldRates", "gold_rates.current",
+                PricingService::currentRates),
+            rates -> currentRates = rates,
+            e -> JOptionPane.showMessageDialog(this, "Error loading gold rates: " + e.getMessage()));
+    }
+
+    // New rates apply to every item at once; blank 22K/18K rates follow the 24K rate by purity
+    private void showGoldRatesDialog() {
+        GoldRate fine = currentRates.get(PricingService.FINE_KARAT);
+        JTextField fineField = new JTextField(fine != null ? fine.getRatePerGram().toString() : "");
+        JTextField rate22Field = new JTextField(explicitRate(22));
+        JTextField rate18Field = new JTextField(explicitRate(18));
+        JTextField makingField = new JTextField(fine != null ? fine.getMakingChargePerGram().toString() : "0");
+
+        JPanel panel = new JPanel(new GridLayout(5, 2, 10, 10));
+        panel.add(new JLabel("24K rate per gram:"));
+        panel.add(fineField);
+        panel.add(new JLabel("22K rate per gram (blank = by purity):"));
+        panel.add(rate22Field);
+        panel.add(new JLabel("18K rate per gram (blank = by purity):"));
+        panel.add(rate18Field);
+        panel.add(new JLabel("Making charge per gram:"));
+        panel.add(makingField);
+        panel.add(new JLabel(fine != null ? "Current since " + fine.getEffectiveFrom() : "No rates set yet"));
+
+        int result = JOptionPane.showConfirmDialog(this, panel, "Set Gold Rates",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (result != JOptionPane.OK_OPTION) return;
+        List<GoldRate> rates = new ArrayList<>();
+        try {
+            Money making = Money.parse(makingField.getText());
+            Money fineRate = Money.parse(fineField.getText());
+            if (!fineRate.isPositive() || making.compareTo(Money.ZERO) < 0) {
+                throw new IllegalArgumentException("The 24K rate must be positive and the making charge not negative");
             }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Error loading gold items: " + e.getMessage());
+            rates.add(new GoldRate(PricingService.FINE_KARAT, fineRate, making, null));
+            addRate(rates, 22, rate22Field.getText(), fineRate, making);
+            addRate(rates, 18, rate18Field.getText(), fineRate, making);
+        } catch (Exception e) {
+            JOptionPane.showMessageDialog(this, "Error setting rates: " + e.getMessage());
+            return;
+        }
+        goldRatesBtn.setEnabled(false);
+        DataAccessExecutor.onEdt(
+            DataAccessExecutor.getShared().submit("gold_rates.apply", () -> PricingService.applyRates(rates)),
+            repriced -> {
+                goldRatesBtn.setEnabled(true);
+                loadGoldRates();
+                JOptionPane.showMessageDialog(this, "Gold rates updated; " + repriced + " item(s) repriced.");
+            },
+            e -> {
+                goldRatesBtn.setEnabled(true);
+                JOptionPane.showMessageDialog(this, "Error applying gold rates: " + e.getMessage());
+            });
+    }
+
+    // Blank when the purity's rate is just the 24K rate by purity, so it keeps following 24K
+    private String explicitRate(int purityKarat) {
+        GoldRate rate = currentRates.get(purityKarat);
+        GoldRate fine = currentRates.get(PricingService.FINE_KARAT);
+        if (rate == null || fine != null && rate.getRatePerGram().equals(
+                fine.getRatePerGram().times(purityKarat, PricingService.FINE_KARAT, RoundingMode.HALF_UP))) {
+            return "";
         }
+        return rate.getRatePerGram().toString();
     }
 
+    private static void addRate(List<GoldRate> rates, int purityKarat, String text, Money fineRate, Money making) {
+        Money rate = text.trim().isEmpty()
+                ? fineRate.times(purityKarat, PricingService.FINE_KARAT, RoundingMode.HALF_UP)
+                : Money.parse(text);
+        if (!rate.isPositive()) {
+            throw new IllegalArgumentException(purityKarat + "K rate must be positive");
+        }
+        rates.add(new GoldRate(purityKarat, rate, making, null));
+    }
+
+    // Rows are paged in as the table scrolls; the total comes from the daily summary, not the sales rows
     private void loadSalesReport(Date date) {
-        // ... (unchanged)
-        salesModel.setRowCount(0);
-        double totalSales = 0.0;
-        String sql = "SELECT s.sale_id, s.customer_id, g.name, g.weight_grams, "
-                + "g.purity_karat, s.total_amount, s.sale_date "
-                + "FROM sales s "
-                + "JOIN gold_items g ON s.item_id = g.item_id "
-                + "WHERE s.sale_date = ? "
-                + "ORDER BY s.sale_id";
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setDate(1, new java.sql.Date(date.getTime()));
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                    double amount = rs.getDouble("total_amount");
-                    totalSales += amount;
-                    salesModel.addRow(new Object[]{
-                        rs.getInt("sale_id"),
-                        rs.getInt("customer_id"),
-                        rs.getString("name"),
-                        rs.getDouble("weight_grams"),
-                        rs.getInt("purity_karat"),
-                        amount,
-                        rs.getDate("sale_date")
-                    });
+        LocalDate saleDate = toLocalDate(date);
+        salesModel.setSource(SalesPageSources.byDate(saleDate));
+        DataAccessExecutor.onEdt(
+            DataAccessExecutor.getShared().submitLatest("admin.salesTotal", "sales_daily_summary.sumRevenueOn",
+                () -> SalesSummaryRepository.sumRevenueOn(saleDate)),
+            totalSales -> {
+                NumberFormat fmt = NumberFormat.getCurrencyInstance(new Locale("en", "IN"));
+                totalSalesLabel.setText("Total Sales: " + fmt.format(totalSales.toBigDecimal()));
+            },
+            e -> JOptionPane.showMessageDialog(this, "Error loading sales report: " + e.getMessage()));
+    }
+
+    // Runs a write off the EDT and reports the outcome; the catalog reload inside the write updates the table
+    private void runItemWrite(String queryName, Callable<Integer> write, String successMessage, String errorPrefix) {
+        DataAccessExecutor.onEdt(
+            DataAccessExecutor.getShared().submit(queryName, write),
+            rows -> {
+                if (rows > 0) {
+                    JOptionPane.showMessageDialog(this, successMessage);
                 }
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Error loading sales report: " + e.getMessage());
-        }
-        NumberFormat fmt = NumberFormat.getCurrencyInstance(new Locale("en", "IN"));
-        totalSalesLabel.setText("Total Sales: " + fmt.format(totalSales));
+            },
+            e -> JOptionPane.showMessageDialog(this, errorPrefix + e.getMessage()));
     }
 
     private void showAddItemDialog() {
@@ -273,6 +676,14 @@ public class AdminDashboardFrame extends JFrame {
         JTextField weightField = new JTextField();
         JComboBox<String> purityCombo = new JComboBox<>(new String[]{"18", "22", "24"});
         JTextField priceField = new JTextField();
+        // Priced from the current gold rate of the chosen purity; can still be overridden by hand
+        Runnable fillPrice = () -> {
+            Money price = PricingService.pricePerGram(currentRates,
+                    Integer.parseInt(purityCombo.getSelectedItem().toString()));
+            if (price != null) priceField.setText(price.toString());
+        };
+        purityCombo.addActionListener(e -> fillPrice.run());
+        fillPrice.run();
         JTextField quantityField = new JTextField("1"); // ✅ Default quantity = 1
 
         JPanel panel = new JPanel(new GridLayout(5, 2, 10, 10));
@@ -293,28 +704,20 @@ public class AdminDashboardFrame extends JFrame {
             try {
                 String name = nameField.getText().trim();
                 if (name.isEmpty()) throw new IllegalArgumentException("Name cannot be empty");
-                double weight = Double.parseDouble(weightField.getText().trim());
+                Weight weight = Weight.parseGrams(weightField.getText());
                 int purity = Integer.parseInt(purityCombo.getSelectedItem().toString());
-                double pricePerGram = Double.parseDouble(priceField.getText().trim());
+                Money pricePerGram = Money.parse(priceField.getText());
                 int quantity = Integer.parseInt(quantityField.getText().trim()); // ✅ Parse quantity
-                if (weight <= 0 || pricePerGram <= 0 || quantity <= 0) {
+                if (!weight.isPositive() || !pricePerGram.isPositive() || quantity <= 0) {
                     throw new IllegalArgumentException("Weight, price, and quantity must be positive");
                 }
-                double totalPrice = weight * pricePerGram;
+                Money totalPrice = pricePerGram.timesWeight(weight, RoundingMode.HALF_UP);
                 // ✅ Insert quantity
-                String sql = "INSERT INTO gold_items (name, weight_grams, purity_karat, price_per_gram, total_price, quantity, status) VALUES (?, ?, ?, ?, ?, ?, 'available')";
-                try (Connection conn = DBConnection.getConnection();
-                     PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                    pstmt.setString(1, name);
-                    pstmt.setDouble(2, weight);
-                    pstmt.setInt(3, purity);
-                    pstmt.setDouble(4, pricePerGram);
-                    pstmt.setDouble(5, totalPrice);
-                    pstmt.setInt(6, quantity); // ✅ Set quantity
-                    pstmt.executeUpdate();
-                    JOptionPane.showMessageDialog(this, "Gold item added successfully!");
-                    loadGoldItems();
-                }
+                runItemWrite("gold_items.insert", () -> {
+                    int itemId = GoldItemRepository.insert(name, weight, purity, pricePerGram, totalPrice, quantity);
+                    GoldItemCatalog.getShared().reload(itemId);
+                    return 1;
+                }, "Gold item added successfully!", "Error adding item: ");
             } catch (Exception e) {
                 JOptionPane.showMessageDialog(this, "Error adding item: " + e.getMessage());
             }
@@ -327,24 +730,22 @@ public class AdminDashboardFrame extends JFrame {
             JOptionPane.showMessageDialog(this, "Please select an item to edit");
             return;
         }
-        int itemId = (int) goldItemsModel.getValueAt(selectedRow, 0);
-        String status = (String) goldItemsModel.getValueAt(selectedRow, 7); // ✅ Status is now index 7
-        if ("sold".equals(status)) {
+        GoldItem selected = goldItemsModel.getItemAt(goldItemsTable.convertRowIndexToModel(selectedRow));
+        if ("sold".equals(selected.getStatus())) {
             JOptionPane.showMessageDialog(this, "Cannot edit sold items");
             return;
         }
-        String currentName = (String) goldItemsModel.getValueAt(selectedRow, 1);
-        double currentWeight = (Double) goldItemsModel.getValueAt(selectedRow, 2);
-        int currentPurity = (Integer) goldItemsModel.getValueAt(selectedRow, 3);
-        double currentPricePerGram = (Double) goldItemsModel.getValueAt(selectedRow, 4);
-        int currentQuantity = (Integer) goldItemsModel.getValueAt(selectedRow, 6); // ✅ Get quantity
-
-        JTextField nameField = new JTextField(currentName);
-        JTextField weightField = new JTextField(String.valueOf(currentWeight));
+        showEditItemDialog(selected, selected);
+    }
+
+    // base is the version the edit applies to; the fields are pre-filled from prefill
+    private void showEditItemDialog(GoldItem base, GoldItem prefill) {
+        JTextField nameField = new JTextField(prefill.getName());
+        JTextField weightField = new JTextField(prefill.getWeight().toString());
         JComboBox<String> purityCombo = new JComboBox<>(new String[]{"18", "22", "24"});
-        purityCombo.setSelectedItem(String.valueOf(currentPurity));
-        JTextField priceField = new JTextField(String.valueOf(currentPricePerGram));
-        JTextField quantityField = new JTextField(String.valueOf(currentQuantity)); // ✅ Pre-fill quantity
+        purityCombo.setSelectedItem(String.valueOf(prefill.getPurityKarat()));
+        JTextField priceField = new JTextField(prefill.getPricePerGram().toString());
+        JTextField quantityField = new JTextField(String.valueOf(prefill.getQuantity())); // ✅ Pre-fill quantity
 
         JPanel panel = new JPanel(new GridLayout(5, 2, 10, 10));
         panel.add(new JLabel("Name:"));
@@ -364,37 +765,76 @@ public class AdminDashboardFrame extends JFrame {
             try {
                 String name = nameField.getText().trim();
                 if (name.isEmpty()) throw new IllegalArgumentException("Name cannot be empty");
-                double weight = Double.parseDouble(weightField.getText().trim());
+                Weight weight = Weight.parseGrams(weightField.getText());
                 int purity = Integer.parseInt(purityCombo.getSelectedItem().toString());
-                double pricePerGram = Double.parseDouble(priceField.getText().trim());
+                Money pricePerGram = Money.parse(priceField.getText());
                 int quantity = Integer.parseInt(quantityField.getText().trim()); // ✅ Parse new quantity
-                if (weight <= 0 || pricePerGram <= 0 || quantity <= 0) {
+                if (!weight.isPositive() || !pricePerGram.isPositive() || quantity <= 0) {
                     throw new IllegalArgumentException("Weight, price, and quantity must be positive");
                 }
-                double totalPrice = weight * pricePerGram;
-                // ✅ Update quantity
-                String sql = "UPDATE gold_items SET name = ?, weight_grams = ?, purity_karat = ?, price_per_gram = ?, total_price = ?, quantity = ? WHERE item_id = ?";
-                try (Connection conn = DBConnection.getConnection();
-                     PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                    pstmt.setString(1, name);
-                    pstmt.setDouble(2, weight);
-                    pstmt.setInt(3, purity);
-                    pstmt.setDouble(4, pricePerGram);
-                    pstmt.setDouble(5, totalPrice);
-                    pstmt.setInt(6, quantity); // ✅ Update quantity
-                    pstmt.setInt(7, itemId);
-                    int rows = pstmt.executeUpdate();
-                    if (rows > 0) {
-                        JOptionPane.showMessageDialog(this, "Gold item updated successfully!");
-                        loadGoldItems();
-                    }
-                }
+                GoldItem edited = new GoldItem(base.getItemId(), name, weight, purity, pricePerGram,
+                        pricePerGram.timesWeight(weight, RoundingMode.HALF_UP), quantity,
+                        base.getStatus(), base.getVersion());
+                saveItemEdit(base, edited);
             } catch (Exception e) {
                 JOptionPane.showMessageDialog(this, "Error updating item: " + e.getMessage());
             }
         }
     }
 
+    // Optimistic save; a concurrent change to the row comes back as a merge to confirm
+    private void saveItemEdit(GoldItem base, GoldItem edited) {
+        DataAccessExecutor.onEdt(
+            DataAccessExecutor.getShared().submit("gold_items.update", () -> ItemEditService.save(base, edited)),
+            result -> {
+                switch (result.getOutcome()) {
+                    case SAVED:
+                        JOptionPane.showMessageDialog(this, "Gold item updated successfully!");
+                        break;
+                    case DELETED:
+                        JOptionPane.showMessageDialog(this, "This item was deleted by another user; your changes were not saved.",
+                            "Item Deleted", JOptionPane.WARNING_MESSAGE);
+                        break;
+                    default:
+                        resolveEditConflict(base, edited, result);
+                }
+            },
+            e -> JOptionPane.showMessageDialog(this, "Error updating item: " + e.getMessage()));
+    }
+
+    private void resolveEditConflict(GoldItem base, GoldItem edited, ItemEditService.Result result) {
+        GoldItem current = result.getCurrent();
+        GoldItem merged = result.getMerged();
+        String[] columns = {"Field", "When you opened", "Your edit", "Now", "Merged"};
+        Object[][] rows = {
+            {"Name", base.getName(), edited.getName(), current.getName(), merged.getName()},
+            {"Weight (g)", base.getWeight(), edited.getWeight(), current.getWeight(), merged.getWeight()},
+            {"Purity (K)", base.getPurityKarat(), edited.getPurityKarat(), current.getPurityKarat(), merged.getPurityKarat()},
+            {"Price/Gram", base.getPricePerGram(), edited.getPricePerGram(), current.getPricePerGram(), merged.getPricePerGram()},
+            {"Quantity", base.getQuantity(), edited.getQuantity(), current.getQuantity(), merged.getQuantity()},
+        };
+        JTable diffTable = new JTable(rows, columns);
+        diffTable.setEnabled(false);
+        JScrollPane diffPane = new JScrollPane(diffTable);
+        diffPane.setPreferredSize(new Dimension(620, 130));
+
+        JPanel panel = new JPanel(new BorderLayout(10, 10));
+        String conflicts = result.getConflicts().isEmpty() ? "none; the changes were merged cleanly"
+                : String.join(", ", result.getConflicts());
+        panel.add(new JLabel("<html>This item was changed by someone else while you were editing it.<br>"
+                + "Fields changed on both sides: " + conflicts + "</html>"), BorderLayout.NORTH);
+        panel.add(diffPane, BorderLayout.CENTER);
+
+        String[] options = {"Save Merged", "Edit Again", "Discard My Changes"};
+        int choice = JOptionPane.showOptionDialog(this, panel, "Edit Conflict",
+                JOptionPane.DEFAULT_OPTION, JOptionPane.WARNING_MESSAGE, null, options, options[0]);
+        if (choice == 0) {
+            saveItemEdit(current, merged);
+        } else if (choice == 1) {
+            showEditItemDialog(current, merged);
+        }
+    }
+
     private void deleteSelectedItem() {
         // ... (unchanged - deletion logic remains same)
         int selectedRow = goldItemsTable.getSelectedRow();
@@ -402,27 +842,20 @@ public class AdminDashboardFrame extends JFrame {
             JOptionPane.showMessageDialog(this, "Please select an item to delete");
             return;
         }
-        int itemId = (int) goldItemsModel.getValueAt(selectedRow, 0);
-        String status = (String) goldItemsModel.getValueAt(selectedRow, 7); // ✅ Status index updated
-        if ("sold".equals(status)) {
+        GoldItem selected = goldItemsModel.getItemAt(goldItemsTable.convertRowIndexToModel(selectedRow));
+        int itemId = selected.getItemId();
+        if ("sold".equals(selected.getStatus())) {
             JOptionPane.showMessageDialog(this, "Cannot delete sold items");
             return;
         }
         int confirm = JOptionPane.showConfirmDialog(this, 
             "Are you sure you want to delete this item?", "Confirm Delete", JOptionPane.YES_NO_OPTION);
         if (confirm == JOptionPane.YES_OPTION) {
-            try {
-                String sql = "DELETE FROM gold_items WHERE item_id = ?";
-                try (Connection conn = DBConnection.getConnection();
-                     PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                    pstmt.setInt(1, itemId);
-                    pstmt.executeUpdate();
-                    JOptionPane.showMessageDialog(this, "Item deleted successfully!");
-                    loadGoldItems();
-                }
-            } catch (SQLException e) {
-                JOptionPane.showMessageDialog(this, "Error deleting item: " + e.getMessage());
-            }
+            runItemWrite("gold_items.delete", () -> {
+                GoldItemRepository.delete(itemId);
+                GoldItemCatalog.getShared().reload(itemId);
+                return 1;
+            }, "Item deleted successfully!", "Error deleting item: ");
         }
     }
 
@@ -0,0 +1,80 @@
+package com.goldinventory.ui.admin;
+
+import com.goldinventory.service.ExportJob;
+
+import javax.swing.table.AbstractTableModel;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Snapshot of the export job history, newest first. EDT only.
+ */
+class ExportJobsTableModel extends AbstractTableModel {
+    private static final String[] COLUMNS = {"Job", "Export", "Status", "Progress", "Rows", "Queued", "Duration", "File"};
+
+    private final SimpleDateFormat timeFormat = new SimpleDateFormat("HH:mm:ss");
+    private final List<ExportJob> rows = new ArrayList<>();
+
+    void setJobs(List<ExportJob> jobs) {
+        rows.clear();
+        rows.addAll(jobs);
+        fireTableDataChanged();
+    }
+
+    // Progress ticks only repaint the job's own row
+    void jobChanged(ExportJob job) {
+        int row = rows.indexOf(job);
+        if (row >= 0) fireTableRowsUpdated(row, row);
+    }
+
+    ExportJob getJobAt(int row) {
+        return rows.get(row);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        ExportJob job = rows.get(row);
+        switch (column) {
+            case 0: return job.getId();
+            case 1: return job.getDescription();
+            case 2: return job.getStatus() == ExportJob.Status.FAILED
+                    ? "FAILED: " + job.getError() : job.getStatus().toString();
+            case 3: {
+                int percent = job.getPercentDone();
+                return percent < 0 ? "" : percent + "%";
+            }
+            case 4: {
+                long total = job.getEstimatedTotal();
+                return total < 0 ? String.valueOf(job.getRowsWritten()) : job.getRowsWritten() + " / " + total;
+            }
+            case 5: return timeFormat.format(new Date(job.getQueuedAt()));
+            case 6: return formatDuration(job);
+            case 7: return job.getFile().getAbsolutePath();
+            default: throw new IndexOutOfBoundsException("column " + column);
+        }
+    }
+
+    private static String formatDuration(ExportJob job) {
+        long started = job.getStartedAt();
+        if (started == 0) return "";
+        long end = job.isFinished() ? job.getFinishedAt() : System.currentTimeMillis();
+        return String.format("%.1f s", (end - started) / 1000.0);
+    }
+}
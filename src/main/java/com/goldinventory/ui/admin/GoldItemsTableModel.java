@@ -0,0 +1,89 @@
+package com.goldinventory.ui.admin;
+
+import com.goldinventory.model.GoldItem;
+import com.goldinventory.model.Money;
+import com.goldinventory.model.Weight;
+import com.goldinventory.ui.table.GoldItemColumns;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.List;
+
+/**
+ * Gold items ordered by item_id, held in primitive columns. Catalog deltas are applied row by row with
+ * fine-grained table events, so selection and scroll position survive a refresh.
+ * EDT only.
+ */
+class GoldItemsTableModel extends AbstractTableModel {
+    private static final String[] COLUMNS = {"ID", "Name", "Weight (g)", "Purity (K)", "Price/Gram", "Total Price", "Qty", "Status"};
+    private static final Class<?>[] COLUMN_CLASSES = {Integer.class, String.class, Weight.class, Integer.class, Money.class, Money.class, Integer.class, String.class};
+
+    private final GoldItemColumns rows = new GoldItemColumns();
+
+    void setItems(List<GoldItem> itemsById) {
+        rows.clear();
+        for (GoldItem item : itemsById) {
+            rows.add(item);
+        }
+        fireTableDataChanged();
+    }
+
+    void applyChanges(List<GoldItem> upserted, List<Integer> removedIds) {
+        for (int itemId : removedIds) {
+            int row = rows.indexOfSorted(itemId);
+            if (row >= 0) {
+                rows.remove(row);
+                fireTableRowsDeleted(row, row);
+            }
+        }
+        for (GoldItem item : upserted) {
+            int row = rows.indexOfSorted(item.getItemId());
+            if (row >= 0) {
+                rows.set(row, item);
+                fireTableRowsUpdated(row, row);
+            } else {
+                int insertAt = -row - 1;
+                rows.insert(insertAt, item);
+                fireTableRowsInserted(insertAt, insertAt);
+            }
+        }
+    }
+
+    GoldItem getItemAt(int row) {
+        return rows.getItem(row);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return COLUMN_CLASSES[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        switch (column) {
+            case 0: return rows.getItemId(row);
+            case 1: return rows.getName(row);
+            case 2: return rows.getWeight(row);
+            case 3: return rows.getPurityKarat(row);
+            case 4: return rows.getPricePerGram(row);
+            case 5: return rows.getTotalPrice(row);
+            case 6: return rows.getQuantity(row);
+            case 7: return rows.getStatus(row);
+            default: throw new IndexOutOfBoundsException("column " + column);
+        }
+    }
+}
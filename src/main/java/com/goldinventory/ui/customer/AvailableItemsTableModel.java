@@ -0,0 +1,137 @@
+package com.goldinventory.ui.customer;
+
+import com.goldinventory.model.GoldItem;
+import com.goldinventory.ui.table.GoldItemColumns;
+import com.goldinventory.ui.table.PermutationRowSorter;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Items a customer can buy, held in primitive columns, plus the quantity the customer has picked
+ * for each row. Only Qty and Add to Cart are editable. EDT only.
+ */
+class AvailableItemsTableModel extends AbstractTableModel {
+    static final int QTY_COLUMN = 6;
+    static final int ADD_COLUMN = 7;
+    static final int ID_COLUMN = 8;
+    private static final String[] COLUMNS = {"Name", "Weight (g)", "Purity (K)", "Price/Gram", "Total Price", "Stock", "Qty", "Add to Cart", "ID"};
+    private static final String ADD_LABEL = "🛒 Add to Cart";
+
+    private final GoldItemColumns rows = new GoldItemColumns();
+    private int[] pickedQuantities = new int[0];
+
+    void setItems(List<GoldItem> items) {
+        rows.clear();
+        for (GoldItem item : items) {
+            rows.add(item);
+        }
+        // Ensure the quantity field for adding to cart is reset to 1
+        pickedQuantities = new int[rows.size()];
+        Arrays.fill(pickedQuantities, 1);
+        fireTableDataChanged();
+    }
+
+    // Patches price and stock for the changed items; rows that sold out are deleted, one event each, and
+    // the rest get one event for the span of touched rows. Items not on screen are left for the next
+    // refresh. Returns whether any row changed
+    boolean applyChanges(Map<Integer, GoldItem> changed) {
+        boolean anyChanged = false;
+        // Backwards, so each deletion only shifts rows already looked at
+        for (int row = rows.size() - 1; row >= 0; row--) {
+            GoldItem item = changed.get(rows.getItemId(row));
+            if (item == null || item.getQuantity() > 0) continue;
+            rows.remove(row);
+            System.arraycopy(pickedQuantities, row + 1, pickedQuantities, row, rows.size() - row);
+            fireTableRowsDeleted(row, row);
+            anyChanged = true;
+        }
+        int first = -1, last = -1;
+        for (int row = 0; row < rows.size(); row++) {
+            GoldItem item = changed.get(rows.getItemId(row));
+            if (item == null) continue;
+            rows.set(row, item);
+            // Never more picked than is left in stock
+            pickedQuantities[row] = Math.min(pickedQuantities[row], item.getQuantity());
+            if (first < 0) first = row;
+            last = row;
+        }
+        if (first >= 0) {
+            fireTableRowsUpdated(first, last);
+            anyChanged = true;
+        }
+        return anyChanged;
+    }
+
+    GoldItem getItemAt(int row) {
+        return rows.getItem(row);
+    }
+
+    int getItemId(int row) {
+        return rows.getItemId(row);
+    }
+
+    int getPickedQuantity(int row) {
+        return pickedQuantities[row];
+    }
+
+    // Name and the numeric columns sort on their primitive arrays; the rest do not
+    PermutationRowSorter.RowComparator sortKeys(int column) {
+        switch (column) {
+            case 0: return rows.comparator(GoldItemColumns.Field.NAME);
+            case 1: return rows.comparator(GoldItemColumns.Field.WEIGHT);
+            case 2: return rows.comparator(GoldItemColumns.Field.PURITY);
+            case 3: return rows.comparator(GoldItemColumns.Field.PRICE_PER_GRAM);
+            case 4: return rows.comparator(GoldItemColumns.Field.TOTAL_PRICE);
+            case 5: return rows.comparator(GoldItemColumns.Field.QUANTITY);
+            default: return null;
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        // A row with nothing in stock has no valid quantity to pick
+        return (column == QTY_COLUMN || column == ADD_COLUMN) && rows.getQuantity(row) > 0;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        switch (column) {
+            case 0: return rows.getName(row);
+            case 1: return rows.getWeight(row);
+            case 2: return rows.getPurityKarat(row);
+            case 3: return rows.getPricePerGram(row);
+            case 4: return rows.getTotalPrice(row); // This is total price for ONE item
+            case 5: return rows.getQuantity(row);   // Current stock
+            case 6: return pickedQuantities[row];
+            case 7: return ADD_LABEL;
+            case 8: return rows.getItemId(row);
+            default: throw new IndexOutOfBoundsException("column " + column);
+        }
+    }
+
+    @Override
+    public void setValueAt(Object value, int row, int column) {
+        if (column == QTY_COLUMN && value instanceof Number) {
+            pickedQuantities[row] = ((Number) value).intValue();
+            fireTableCellUpdated(row, column);
+        }
+    }
+}
@@ -1,20 +1,46 @@
 package com.goldinventory.ui.customer;
 
+import com.goldinventory.model.CheckoutLine;
+import com.goldinventory.model.GoldItem;
+import com.goldinventory.model.Money;
+import com.goldinventory.model.SaleRecord;
+import com.goldinventory.model.Weight;
 import com.goldinventory.service.AuthService;
-import com.goldinventory.database.DBConnection;
+import com.goldinventory.service.CheckoutService;
+import com.goldinventory.service.InsufficientStockException;
+import com.goldinventory.service.SavedCarts;
+import com.goldinventory.service.GoldItemCatalog;
+import com.goldinventory.service.StockReservations;
+import com.goldinventory.service.async.DataAccessExecutor;
+import com.goldinventory.service.search.CatalogFacets;
+import com.goldinventory.service.search.CatalogQuery;
+import com.goldinventory.service.search.CatalogSearchIndex;
+import com.goldinventory.service.search.CatalogSearchResult;
+import com.goldinventory.ui.table.PagedTableModel;
+import com.goldinventory.ui.table.PermutationRowSorter;
+import com.goldinventory.ui.table.SalesPageSources;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.plaf.nimbus.NimbusLookAndFeel;
 import javax.swing.table.*;
 import java.awt.*;
-import java.sql.*;
+import java.sql.SQLException;
 import java.text.NumberFormat;
-import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Locale;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects; // Added for Objects.equals()
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public class CustomerDashboardFrame extends JFrame {
     private AuthService.User currentUser;
@@ -28,20 +54,57 @@ public class CustomerDashboardFrame extends JFrame {
     private static final Font HEADER_FONT = new Font("Segoe UI", Font.BOLD, 18);
     private static final Font TABLE_FONT = new Font("Segoe UI", Font.PLAIN, 14);
     private static final Font BUTTON_FONT = new Font("Segoe UI", Font.BOLD, 14);
+    // Quiet time after the last keystroke before the search runs
+    private static final int SEARCH_DEBOUNCE_MILLIS = 150;
 
     // Enhanced cart with better structure
     private Map<Integer, CartItem> cart = new HashMap<>();
+    // Soft holds on stock for everything in the cart, renewed while this dashboard is open
+    private final StockReservations.Session cartHolds;
+    // The same cart, saved so it follows the customer to the next login on any terminal
+    private final SavedCarts.Cart savedCart;
+    private boolean checkoutInProgress;
     private JLabel cartTotalLabel;
     private JLabel cartItemCountLabel;
+    // Price and stock changes, such as a new gold rate, are patched into the rows on screen and the cart
+    private final GoldItemCatalog.Listener catalogListener = (upserted, removedIds) ->
+        SwingUtilities.invokeLater(() -> applyCatalogChanges(upserted));
 
     public CustomerDashboardFrame(AuthService.User user) {
         this.currentUser = user;
+        this.cartHolds = StockReservations.getShared().openSession(user.getUserId());
+        this.savedCart = SavedCarts.getShared().open(user.getUserId());
         initLookAndFeel();
         initComponents();
+        GoldItemCatalog.getShared().addListener(catalogListener);
         loadAvailableItems();
+        restoreCart();
         loadPurchaseHistory();
     }
 
+    @Override
+    public void dispose() {
+        GoldItemCatalog.getShared().removeListener(catalogListener);
+        searchTimer.stop();
+        StockReservations.Session holds = cartHolds;
+        DataAccessExecutor.getShared().submit("stock_holds.close", () -> {
+            holds.close();
+            return null;
+        }).exceptionally(e -> {
+            e.printStackTrace(); // Unreleased holds simply expire
+            return null;
+        });
+        SavedCarts.Cart saved = savedCart;
+        DataAccessExecutor.getShared().submit("cart_lines.save", () -> {
+            saved.close();
+            return null;
+        }).exceptionally(e -> {
+            e.printStackTrace(); // The last changes are lost; the rest of the cart is already saved
+            return null;
+        });
+        super.dispose();
+    }
+
     private void initLookAndFeel() {
         try {
             UIManager.setLookAndFeel(new NimbusLookAndFeel());
@@ -117,7 +180,19 @@ public class CustomerDashboardFrame extends JFrame {
 
     // ITEMS PANEL
     private JTable itemsTable;
-    private DefaultTableModel itemsModel;
+    private AvailableItemsTableModel itemsModel;
+    private PermutationRowSorter<AvailableItemsTableModel> itemsSorter;
+    private JTextField searchField;
+    private JComboBox<String> purityFilter;
+    private JComboBox<String> weightFilter;
+    private JComboBox<String> priceFilter;
+    // Karat behind each purityFilter entry; 0 for all purities
+    private int[] purityChoices = {0};
+    private boolean updatingFacets;
+    private Timer searchTimer;
+    private CompletableFuture<CatalogSearchResult> pendingSearch;
+    // Bumped on every edit so a result for older text is never shown
+    private int searchGeneration;
 
     private JPanel createItemsPanel() {
         JPanel panel = new JPanel(new BorderLayout(10, 10));
@@ -136,19 +211,30 @@ public class CustomerDashboardFrame extends JFrame {
         JLabel searchLabel = new JLabel("Search:");
         searchLabel.setFont(BUTTON_FONT);
         
-        JTextField searchField = new JTextField(20);
+        searchField = new JTextField(20);
         searchField.setFont(TABLE_FONT);
         searchField.setBorder(BorderFactory.createCompoundBorder(
             BorderFactory.createLineBorder(new Color(200, 200, 200)),
             BorderFactory.createEmptyBorder(8, 12, 8, 12)
         ));
 
+        // Typing searches live once the keys go quiet; the button and Enter search straight away
+        searchTimer = new Timer(SEARCH_DEBOUNCE_MILLIS, e -> filterItems());
+        searchTimer.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { searchChanged(); }
+            @Override public void removeUpdate(DocumentEvent e) { searchChanged(); }
+            @Override public void changedUpdate(DocumentEvent e) { searchChanged(); }
+        });
+        searchField.addActionListener(e -> searchNow());
+
         JButton searchBtn = createStyledButton("🔍 Search", DARK_NAVY, Color.WHITE, new Dimension(100, 40));
-        searchBtn.addActionListener(e -> filterItems(searchField.getText().trim()));
+        searchBtn.addActionListener(e -> searchNow());
 
         JButton refreshBtn = createStyledButton("🔄 Refresh", GOLD, DARK_NAVY, new Dimension(120, 40));
         refreshBtn.addActionListener(e -> {
             searchField.setText("");
+            clearFacets();
             loadAvailableItems();
         });
 
@@ -157,17 +243,29 @@ public class CustomerDashboardFrame extends JFrame {
         searchPanel.add(searchBtn);
         searchPanel.add(refreshBtn);
 
+        // Facet filters; each entry shows how many items picking it would leave
+        JPanel filterPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 0));
+        filterPanel.setOpaque(false);
+        filterPanel.setBorder(new EmptyBorder(10, 0, 0, 0));
+        JLabel filterLabel = new JLabel("Filter:");
+        filterLabel.setFont(BUTTON_FONT);
+        purityFilter = createFacetCombo("All purities");
+        weightFilter = createFacetCombo("Any weight");
+        priceFilter = createFacetCombo("Any price");
+        filterPanel.add(filterLabel);
+        filterPanel.add(purityFilter);
+        filterPanel.add(weightFilter);
+        filterPanel.add(priceFilter);
+
         topControls.add(searchPanel, BorderLayout.WEST);
+        topControls.add(filterPanel, BorderLayout.SOUTH);
 
         // Table
-        String[] columns = {"Name", "Weight (g)", "Purity (K)", "Price/Gram", "Total Price", "Stock", "Qty", "Add to Cart", "ID"};
-        itemsModel = new DefaultTableModel(columns, 0) {
-            @Override public boolean isCellEditable(int row, int col) {
-                return col == 6 || col == 7; // Qty and Add to Cart are editable
-            }
-        };
+        itemsModel = new AvailableItemsTableModel();
         
         itemsTable = new JTable(itemsModel);
+        itemsSorter = new PermutationRowSorter<>(itemsModel, (model, column) -> model.sortKeys(column));
+        itemsTable.setRowSorter(itemsSorter);
         itemsTable.setFont(TABLE_FONT);
         itemsTable.setRowHeight(35);
         itemsTable.getTableHeader().setFont(BUTTON_FONT);
@@ -184,13 +282,13 @@ public class CustomerDashboardFrame extends JFrame {
         }
 
         // Hide ID column
-        itemsTable.getColumnModel().getColumn(8).setMinWidth(0);
-        itemsTable.getColumnModel().getColumn(8).setMaxWidth(0);
+        itemsTable.getColumnModel().getColumn(AvailableItemsTableModel.ID_COLUMN).setMinWidth(0);
+        itemsTable.getColumnModel().getColumn(AvailableItemsTableModel.ID_COLUMN).setMaxWidth(0);
 
         // Set custom editors and renderers
-        itemsTable.getColumnModel().getColumn(6).setCellEditor(new SpinnerCellEditor());
-        itemsTable.getColumnModel().getColumn(7).setCellRenderer(new AddToCartButtonRenderer());
-        itemsTable.getColumnModel().getColumn(7).setCellEditor(new AddToCartButtonEditor(new JCheckBox()));
+        itemsTable.getColumnModel().getColumn(AvailableItemsTableModel.QTY_COLUMN).setCellEditor(new SpinnerCellEditor());
+        itemsTable.getColumnModel().getColumn(AvailableItemsTableModel.ADD_COLUMN).setCellRenderer(new AddToCartButtonRenderer());
+        itemsTable.getColumnModel().getColumn(AvailableItemsTableModel.ADD_COLUMN).setCellEditor(new AddToCartButtonEditor(new JCheckBox()));
 
         JScrollPane scrollPane = new JScrollPane(itemsTable);
         scrollPane.setBorder(BorderFactory.createLineBorder(new Color(200, 200, 200)));
@@ -357,7 +455,7 @@ public class CustomerDashboardFrame extends JFrame {
 
     // HISTORY PANEL
     private JTable historyTable;
-    private DefaultTableModel historyModel;
+    private PagedTableModel<SaleRecord> historyModel;
 
     private JPanel createHistoryPanel() {
         JPanel panel = new JPanel(new BorderLayout(10, 10));
@@ -365,9 +463,16 @@ public class CustomerDashboardFrame extends JFrame {
         panel.setBackground(LIGHT_GRAY);
 
         String[] cols = {"Order ID", "Item", "Weight", "Purity", "Amount", "Date"};
-        historyModel = new DefaultTableModel(cols, 0) {
-            @Override public boolean isCellEditable(int row, int col) { return false; }
-        };
+        historyModel = new PagedTableModel<>(cols, (sale, col) -> {
+            switch (col) {
+                case 0: return sale.getSaleId();
+                case 1: return sale.getItemName();
+                case 2: return sale.getWeight();
+                case 3: return sale.getPurityKarat() + "K";
+                case 4: return "₹" + sale.getTotalAmount();
+                default: return java.sql.Date.valueOf(sale.getSaleDate());
+            }
+        });
         historyTable = new JTable(historyModel);
         historyTable.setRowHeight(35);
         historyTable.setFont(TABLE_FONT);
@@ -396,13 +501,13 @@ public class CustomerDashboardFrame extends JFrame {
     private static class CartItem {
         int itemId;
         String name;
-        double weight;
+        Weight weight;
         int purity;
-        double totalPricePerUnit; // Changed to reflect price for one unit
+        Money totalPricePerUnit; // Changed to reflect price for one unit
         int quantity;
         int currentStock; // To store the stock at the time of adding to cart/last refresh
 
-        public CartItem(int itemId, String name, double weight, int purity, double totalPricePerUnit, int quantity) {
+        public CartItem(int itemId, String name, Weight weight, int purity, Money totalPricePerUnit, int quantity) {
             this.itemId = itemId;
             this.name = name;
             this.weight = weight;
@@ -411,8 +516,8 @@ public class CustomerDashboardFrame extends JFrame {
             this.quantity = quantity;
         }
 
-        public double getLineTotal() {
-            return totalPricePerUnit * quantity;
+        public Money getLineTotal() {
+            return totalPricePerUnit.times(quantity);
         }
         
         // Add equals and hashCode for proper map behavior if needed for complex scenarios
@@ -431,56 +536,338 @@ public class CustomerDashboardFrame extends JFrame {
     }
 
     // BUSINESS LOGIC METHODS
-    private void filterItems(String keyword) {
-        if (keyword.isEmpty()) {
-            loadAvailableItems();
+    private JComboBox<String> createFacetCombo(String anyLabel) {
+        JComboBox<String> combo = new JComboBox<>(new String[]{anyLabel});
+        combo.setFont(TABLE_FONT);
+        combo.addActionListener(e -> {
+            if (!updatingFacets) searchNow();
+        });
+        return combo;
+    }
+
+    // Restarts the debounce and cancels any search for the previous text
+    private void searchChanged() {
+        cancelSearch();
+        searchTimer.restart();
+    }
+
+    private void searchNow() {
+        cancelSearch();
+        searchTimer.stop();
+        filterItems();
+    }
+
+    private void cancelSearch() {
+        searchGeneration++;
+        if (pendingSearch != null) {
+            pendingSearch.cancel(false);
+            pendingSearch = null;
+        }
+    }
+
+    private void filterItems() {
+        int generation = searchGeneration;
+        CatalogQuery query = currentQuery();
+        boolean unfiltered = query.getText().isEmpty() && purityFilter.getSelectedIndex() <= 0
+            && weightFilter.getSelectedIndex() <= 0 && priceFilter.getSelectedIndex() <= 0;
+        pendingSearch = DataAccessExecutor.getShared().submitLatest("customer.search", "catalog.search", () -> {
+            CatalogSearchIndex index = CatalogSearchIndex.getShared();
+            index.ensureBuilt();
+            return index.query(query);
+        });
+        DataAccessExecutor.onEdt(pendingSearch,
+            result -> {
+                if (generation != searchGeneration) return;
+                showMatches(unfiltered ? null : result.getItemIds());
+                showFacets(result.getFacets());
+            },
+            e -> JOptionPane.showMessageDialog(this, "Error searching items: " + e.getMessage(),
+                                               "Search Error", JOptionPane.ERROR_MESSAGE));
+    }
+
+    private CatalogQuery currentQuery() {
+        CatalogQuery query = CatalogQuery.ALL
+            .withText(searchField.getText().trim())
+            .withAvailableOnly(true)
+            .withPurity(purityChoices[Math.max(purityFilter.getSelectedIndex(), 0)]);
+        if (weightFilter.getSelectedIndex() > 0) {
+            query = CatalogFacets.withWeightBand(query, weightFilter.getSelectedIndex() - 1);
+        }
+        if (priceFilter.getSelectedIndex() > 0) {
+            query = CatalogFacets.withPriceBand(query, priceFilter.getSelectedIndex() - 1);
+        }
+        return query;
+    }
+
+    // Shows only the rows whose item id is in itemIds (ascending); null shows every row.
+    // The filter is swapped in one step, so the table never shows a half-applied result
+    private void showMatches(int[] itemIds) {
+        if (itemIds == null) {
+            itemsSorter.setRowFilter(null);
             return;
         }
-        TableRowSorter<DefaultTableModel> sorter = new TableRowSorter<>(itemsModel);
-        sorter.setRowFilter(RowFilter.regexFilter("(?i)" + keyword, 0));
-        itemsTable.setRowSorter(sorter);
+        itemsSorter.setRowFilter(row -> Arrays.binarySearch(itemIds, itemsModel.getItemId(row)) >= 0);
+    }
+
+    // Relabels the facet entries with fresh counts, keeping the selections
+    private void showFacets(CatalogFacets facets) {
+        updatingFacets = true;
+        try {
+            int selectedKarat = purityChoices[Math.max(purityFilter.getSelectedIndex(), 0)];
+            List<Integer> karats = facets.getPurities();
+            if (selectedKarat != 0 && !karats.contains(selectedKarat)) {
+                karats.add(selectedKarat);
+                karats.sort(Collections.reverseOrder());
+            }
+            purityChoices = new int[karats.size() + 1];
+            String[] purityLabels = new String[karats.size() + 1];
+            purityLabels[0] = "All purities";
+            int selected = 0;
+            for (int i = 0; i < karats.size(); i++) {
+                int karat = karats.get(i);
+                purityChoices[i + 1] = karat;
+                purityLabels[i + 1] = karat + "K (" + facets.getPurityCount(karat) + ")";
+                if (karat == selectedKarat) selected = i + 1;
+            }
+            setFacetChoices(purityFilter, purityLabels, selected);
+
+            String[] weightLabels = new String[CatalogFacets.WEIGHT_BANDS + 1];
+            weightLabels[0] = "Any weight";
+            for (int band = 0; band < CatalogFacets.WEIGHT_BANDS; band++) {
+                weightLabels[band + 1] = CatalogFacets.weightBandLabel(band) + " (" + facets.getWeightCount(band) + ")";
+            }
+            setFacetChoices(weightFilter, weightLabels, weightFilter.getSelectedIndex());
+
+            String[] priceLabels = new String[CatalogFacets.PRICE_BANDS + 1];
+            priceLabels[0] = "Any price";
+            for (int band = 0; band < CatalogFacets.PRICE_BANDS; band++) {
+                priceLabels[band + 1] = CatalogFacets.priceBandLabel(band) + " (" + facets.getPriceCount(band) + ")";
+            }
+            setFacetChoices(priceFilter, priceLabels, priceFilter.getSelectedIndex());
+        } finally {
+            updatingFacets = false;
+        }
+    }
+
+    private void clearFacets() {
+        updatingFacets = true;
+        try {
+            purityFilter.setSelectedIndex(0);
+            weightFilter.setSelectedIndex(0);
+            priceFilter.setSelectedIndex(0);
+        } finally {
+            updatingFacets = false;
+        }
+    }
+
+    private static void setFacetChoices(JComboBox<String> combo, String[] labels, int selected) {
+        combo.setModel(new DefaultComboBoxModel<>(labels));
+        combo.setSelectedIndex(Math.max(selected, 0));
     }
 
     private void loadAvailableItems() {
-        itemsModel.setRowCount(0);
-        String sql = "SELECT item_id, name, weight_grams, purity_karat, price_per_gram, total_price, quantity " +
-                     "FROM gold_items WHERE quantity > 0 ORDER BY name";
-        try (Connection conn = DBConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                // Ensure the quantity field for adding to cart is reset to 1
-                itemsModel.addRow(new Object[]{
-                    rs.getString("name"),
-                    rs.getDouble("weight_grams"),
-                    rs.getInt("purity_karat"),
-                    rs.getDouble("price_per_gram"),
-                    rs.getDouble("total_price"), // This is total price for ONE item
-                    rs.getInt("quantity"),       // Current stock
-                    1,                            // Default quantity to add
-                    "🛒 Add to Cart",
-                    rs.getInt("item_id")
-                });
+        DataAccessExecutor.onEdt(
+            DataAccessExecutor.getShared().submitLatest("customer.items", "gold_items.available", this::fetchAvailableItems),
+            items -> {
+                // Swapped in with one event, so the sorter rebuilds once rather than per row
+                itemsModel.setItems(items);
+                updateCartTotal();
+                filterItems();
+            },
+            e -> {
+                JOptionPane.showMessageDialog(this, "Error loading items: " + e.getMessage(),
+                                              "DB Error", JOptionPane.ERROR_MESSAGE);
+                e.printStackTrace(); // Print stack trace for debugging
+            });
+    }
+
+    // Runs on a data-access worker thread
+    private List<GoldItem> fetchAvailableItems() throws SQLException {
+        GoldItemCatalog catalog = GoldItemCatalog.getShared();
+        catalog.ensureLoaded();
+        catalog.pollChanges();
+        // Built here so the first keystroke does not wait for it
+        CatalogSearchIndex.getShared().ensureBuilt();
+        return catalog.getAvailable();
+    }
+
+    // Updates the rows and cart in place
+    private void applyCatalogChanges(List<GoldItem> upserted) {
+        if (upserted.isEmpty()) return;
+        Map<Integer, GoldItem> changed = new HashMap<>();
+        for (GoldItem item : upserted) {
+            changed.put(item.getItemId(), item);
+        }
+        // An edit on a row that is about to be deleted would be written to whichever row takes its place
+        if (itemsTable.isEditing()) {
+            int editingRow = itemsTable.convertRowIndexToModel(itemsTable.getEditingRow());
+            GoldItem edited = changed.get(itemsModel.getItemId(editingRow));
+            if (edited != null && edited.getQuantity() <= 0) {
+                itemsTable.getCellEditor().cancelCellEditing();
+            }
+        }
+        if (itemsModel.applyChanges(changed)) {
+            // Prices and stock moved, so the facet counts and any band filter are out of date
+            filterItems();
+        }
+        boolean cartChanged = false;
+        List<String> soldOut = new ArrayList<>();
+        for (Iterator<CartItem> it = cart.values().iterator(); it.hasNext(); ) {
+            CartItem cartItem = it.next();
+            GoldItem item = changed.get(cartItem.itemId);
+            if (item == null) continue;
+            if (item.getQuantity() <= 0) {
+                it.remove();
+                savedCart.remove(cartItem.itemId);
+                releaseHolds("stock_holds.release", () -> cartHolds.release(cartItem.itemId));
+                soldOut.add(cartItem.name);
+                cartChanged = true;
+            } else if (!item.getTotalPrice().equals(cartItem.totalPricePerUnit)) {
+                cartItem.totalPricePerUnit = item.getTotalPrice();
+                cartChanged = true;
+            }
+        }
+        if (cartChanged) {
+            updateCartTotal();
+        }
+        if (!soldOut.isEmpty()) {
+            JOptionPane.showMessageDialog(this,
+                "Sold out and removed from your cart: " + String.join(", ", soldOut),
+                "Item Removed", JOptionPane.INFORMATION_MESSAGE);
+        }
+    }
+
+    private void addToCart(int itemId, String name, Weight weight, int purity,
+                           Money totalPricePerUnit, int quantityToAdd, int availableStock) {
+        // Check if item is already in cart
+        CartItem existingCartItem = cart.get(itemId);
+        int currentCartQuantity = (existingCartItem != null) ? existingCartItem.quantity : 0;
+
+        int potentialNewQuantity = currentCartQuantity + quantityToAdd;
+
+        if (potentialNewQuantity > availableStock) {
+            JOptionPane.showMessageDialog(this,
+                "Only " + availableStock + " items available in stock for " + name + 
+                ". You have " + currentCartQuantity + " in cart. Cannot add " + quantityToAdd + ".",
+                "Insufficient Stock", JOptionPane.WARNING_MESSAGE);
+            return; // Don't proceed with adding
+        }
+        
+        // If item exists in cart, update its quantity
+        if (existingCartItem != null) {
+            existingCartItem.quantity = potentialNewQuantity;
+            existingCartItem.currentStock = availableStock;
+        } else {
+            // Otherwise, create a new cart item
+            CartItem newItem = new CartItem(itemId, name, weight, purity, totalPricePerUnit, quantityToAdd);
+            newItem.currentStock = availableStock;
+            cart.put(itemId, newItem);
+        }
+        savedCart.setQuantity(itemId, potentialNewQuantity);
+        
+        updateCartTotal(); // Refresh cart display
+        
+        JOptionPane.showMessageDialog(this,
+            "✅ Added/Updated " + quantityToAdd + " × " + name + " in cart! Total in cart: " + potentialNewQuantity,
+            "Success", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    // The saved cart comes back in one query and is merged into the cart on the EDT first; only then is
+    // each restored line held for this session and saved at the quantity the cart ends up with
+    private void restoreCart() {
+        DataAccessExecutor.onEdt(
+            DataAccessExecutor.getShared().submit("cart_lines.restore", this::fetchSavedCart),
+            this::mergeSavedCart,
+            this::showRestoreError);
+    }
+
+    // Runs on a data-access worker thread
+    private Map<Integer, Integer> fetchSavedCart() throws SQLException {
+        Map<Integer, Integer> lines = savedCart.load();
+        if (!lines.isEmpty()) {
+            GoldItemCatalog.getShared().ensureLoaded();
+        }
+        return lines;
+    }
+
+    // Items added while the saved cart was loading keep what is on screen; lines for items that are
+    // gone are dropped
+    private void mergeSavedCart(Map<Integer, Integer> lines) {
+        GoldItemCatalog catalog = GoldItemCatalog.getShared();
+        Map<Integer, Integer> restored = new LinkedHashMap<>();
+        for (Map.Entry<Integer, Integer> line : lines.entrySet()) {
+            int itemId = line.getKey();
+            if (cart.containsKey(itemId)) continue;
+            GoldItem item = catalog.get(itemId);
+            if (item == null) {
+                savedCart.remove(itemId);
+                continue;
+            }
+            CartItem cartItem = new CartItem(itemId, item.getName(), item.getWeight(), item.getPurityKarat(),
+                                             item.getTotalPrice(), line.getValue());
+            cartItem.currentStock = item.getQuantity();
+            cart.put(itemId, cartItem);
+            restored.put(itemId, line.getValue());
+        }
+        if (restored.isEmpty()) return;
+        updateCartTotal();
+        DataAccessExecutor.onEdt(
+            DataAccessExecutor.getShared().submit("stock_holds.restore", () -> holdRestoredLines(restored)),
+            available -> applyRestoredHolds(restored, available),
+            this::showRestoreError);
+    }
+
+    // Runs on a data-access worker thread. Holds each line, cut down to the stock still free, and
+    // returns the units this cart could hold per item
+    private Map<Integer, Integer> holdRestoredLines(Map<Integer, Integer> lines) throws SQLException {
+        Map<Integer, Integer> availableById = new HashMap<>();
+        for (Map.Entry<Integer, Integer> line : lines.entrySet()) {
+            int itemId = line.getKey();
+            int available = cartHolds.hold(itemId, line.getValue());
+            if (available > 0 && available < line.getValue()) {
+                cartHolds.hold(itemId, available);
+            }
+            availableById.put(itemId, available);
+        }
+        return availableById;
+    }
+
+    private void applyRestoredHolds(Map<Integer, Integer> restored, Map<Integer, Integer> availableById) {
+        for (Map.Entry<Integer, Integer> line : restored.entrySet()) {
+            int itemId = line.getKey();
+            CartItem cartItem = cart.get(itemId);
+            // Changed or removed meanwhile; that change held and saved its own quantity
+            if (cartItem == null || cartItem.quantity != line.getValue()) continue;
+            int available = availableById.get(itemId);
+            cartItem.currentStock = available;
+            if (available <= 0) {
+                cart.remove(itemId);
+                savedCart.remove(itemId);
+            } else if (available < cartItem.quantity) {
+                cartItem.quantity = available;
+                savedCart.setQuantity(itemId, available);
             }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "Error loading items: " + e.getMessage(),
-                                          "DB Error", JOptionPane.ERROR_MESSAGE);
-            e.printStackTrace(); // Print stack trace for debugging
         }
         updateCartTotal();
     }
 
+    private void showRestoreError(Throwable e) {
+        e.printStackTrace();
+        JOptionPane.showMessageDialog(this, "Error restoring your cart: " + e.getMessage(),
+                                      "DB Error", JOptionPane.ERROR_MESSAGE);
+    }
+
     private void updateCartTotal() {
-        double total = 0.0;
+        Money total = Money.ZERO;
         int itemCount = 0;
         
         for (CartItem item : cart.values()) {
-            total += item.getLineTotal();
+            total = total.plus(item.getLineTotal());
             itemCount += item.quantity;
         }
         
         NumberFormat fmt = NumberFormat.getCurrencyInstance(new Locale("en", "IN"));
-        cartTotalLabel.setText(fmt.format(total));
+        cartTotalLabel.setText(fmt.format(total.toBigDecimal()));
         cartItemCountLabel.setText("🛒 " + itemCount + " items");
         
         // Refresh cart table if it exists
@@ -498,9 +885,9 @@ public class CustomerDashboardFrame extends JFrame {
                 item.name,
                 item.weight + "g",
                 item.purity + "K",
-                fmt.format(item.totalPricePerUnit), // Display unit price
+                fmt.format(item.totalPricePerUnit.toBigDecimal()), // Display unit price
                 item.quantity,
-                fmt.format(item.getLineTotal()),
+                fmt.format(item.getLineTotal().toBigDecimal()),
                 "❌ Remove",
                 item.itemId
             });
@@ -520,7 +907,9 @@ public class CustomerDashboardFrame extends JFrame {
             
         if (confirm == JOptionPane.YES_OPTION) {
             cart.clear();
+            savedCart.clear();
             updateCartTotal();
+            releaseHolds("stock_holds.releaseAll", cartHolds::releaseAll);
             JOptionPane.showMessageDialog(this, "Cart cleared successfully!",
                                         "Success", JOptionPane.INFORMATION_MESSAGE);
         }
@@ -529,7 +918,9 @@ public class CustomerDashboardFrame extends JFrame {
     private void removeFromCart(int itemId) {
         CartItem removedItem = cart.remove(itemId);
         if (removedItem != null) {
+            savedCart.remove(itemId);
             updateCartTotal();
+            releaseHolds("stock_holds.release", () -> cartHolds.release(itemId));
             JOptionPane.showMessageDialog(this, 
                 "Removed " + removedItem.name + " from cart",
                 "Item Removed", JOptionPane.INFORMATION_MESSAGE);
@@ -542,44 +933,49 @@ public class CustomerDashboardFrame extends JFrame {
             if (newQuantity <= 0) {
                 removeFromCart(itemId);
             } else {
-                // IMPORTANT: When updating quantity in cart, we need to consider the stock
-                // available *after* accounting for what's already in the cart.
-                int stockExcludingCurrentItem = getAvailableStock(itemId); 
-                
-                // If the item was just added to cart, its stock needs to be re-evaluated
-                // If it's already in the cart, the stock for validation should be current_db_stock + item.quantity
-                
-                int effectiveAvailableStock = getAvailableStock(itemId); // Get current DB stock
-                
-                if (newQuantity > effectiveAvailableStock) {
-                    JOptionPane.showMessageDialog(this,
-                        "Only " + effectiveAvailableStock + " items available in stock for " + item.name,
-                        "Insufficient Stock", JOptionPane.WARNING_MESSAGE);
-                    // Revert spinner value if possible, or prevent update
-                    return; 
-                }
-                item.quantity = newQuantity;
-                updateCartTotal();
+                // The hold is only moved to the new quantity if that much stock is free
+                withHold(itemId, newQuantity, effectiveAvailableStock -> {
+                    item.currentStock = effectiveAvailableStock;
+                    if (newQuantity > effectiveAvailableStock) {
+                        JOptionPane.showMessageDialog(this,
+                            "Only " + effectiveAvailableStock + " items available in stock for " + item.name,
+                            "Insufficient Stock", JOptionPane.WARNING_MESSAGE);
+                        refreshCartTable(); // Revert the spinner value shown in the table
+                        return;
+                    }
+                    item.quantity = newQuantity;
+                    savedCart.setQuantity(itemId, newQuantity);
+                    updateCartTotal();
+                });
             }
         }
     }
 
-    private int getAvailableStock(int itemId) {
-        String sql = "SELECT quantity FROM gold_items WHERE item_id = ?";
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, itemId);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt("quantity");
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            // Handle error, maybe log or show an error message
-            JOptionPane.showMessageDialog(this, "Error checking stock: " + e.getMessage(), 
-                                          "DB Error", JOptionPane.ERROR_MESSAGE);
-        }
-        return 0; // Return 0 if unable to get stock, preventing over-purchase
+    // Asks for a hold of exactly quantity units; the callback receives the units this cart could hold,
+    // and the hold was placed only if that covers quantity
+    private void withHold(int itemId, int quantity, Consumer<Integer> callback) {
+        DataAccessExecutor.onEdt(
+            DataAccessExecutor.getShared().submit("stock_holds.hold", () -> cartHolds.hold(itemId, quantity)),
+            callback,
+            e -> {
+                e.printStackTrace();
+                JOptionPane.showMessageDialog(this, "Error checking stock: " + e.getMessage(),
+                                              "DB Error", JOptionPane.ERROR_MESSAGE);
+            });
+    }
+
+    private void releaseHolds(String queryName, HoldAction action) {
+        DataAccessExecutor.getShared().submit(queryName, () -> {
+            action.run();
+            return null;
+        }).exceptionally(e -> {
+            e.printStackTrace(); // Left-over holds expire on their own
+            return null;
+        });
+    }
+
+    private interface HoldAction {
+        void run() throws SQLException;
     }
 
     private void doCheckout() {
@@ -588,132 +984,91 @@ public class CustomerDashboardFrame extends JFrame {
                                         "Empty Cart", JOptionPane.INFORMATION_MESSAGE);
             return;
         }
+        if (checkoutInProgress) return;
+        checkoutInProgress = true;
 
-        // Re-validate stock right before checkout to catch any concurrent changes
+        // Snapshot the cart so the worker never reads the EDT-owned map
+        List<CheckoutLine> lines = new ArrayList<>();
         for (CartItem item : cart.values()) {
-            int availableStock = getAvailableStock(item.itemId);
-            if (item.quantity > availableStock) {
-                JOptionPane.showMessageDialog(this,
-                    "Not enough stock for " + item.name + 
-                    "\nAvailable: " + availableStock + ", Requested: " + item.quantity +
-                    "\nPlease adjust your cart.",
-                    "Insufficient Stock", JOptionPane.WARNING_MESSAGE);
-                return; // Stop checkout if any item is out of stock
-            }
+            lines.add(new CheckoutLine(item.itemId, item.name, item.quantity, item.getLineTotal()));
         }
 
+        // Re-validate stock right before checkout to catch any concurrent changes
+        DataAccessExecutor.onEdt(
+            DataAccessExecutor.getShared().submit("checkout.validate", () -> CheckoutService.findShortfalls(lines)),
+            shortfalls -> {
+                if (!shortfalls.isEmpty()) {
+                    checkoutInProgress = false;
+                    JOptionPane.showMessageDialog(this, CheckoutService.describe(shortfalls),
+                        "Insufficient Stock", JOptionPane.WARNING_MESSAGE);
+                    return; // Stop checkout if any item is out of stock
+                }
+                confirmAndCommitCheckout(lines);
+            },
+            e -> {
+                checkoutInProgress = false;
+                JOptionPane.showMessageDialog(this, "Error checking stock: " + e.getMessage(),
+                                              "DB Error", JOptionPane.ERROR_MESSAGE);
+            });
+    }
+
+    private void confirmAndCommitCheckout(List<CheckoutLine> lines) {
         // Calculate total
-        double totalAmount = cart.values().stream()
-            .mapToDouble(CartItem::getLineTotal)
-            .sum();
+        Money totalAmount = Money.ZERO;
+        for (CheckoutLine line : lines) {
+            totalAmount = totalAmount.plus(line.getLineTotal());
+        }
 
         NumberFormat fmt = NumberFormat.getCurrencyInstance(new Locale("en", "IN"));
         int confirm = JOptionPane.showConfirmDialog(this,
-            "Confirm purchase of " + cart.size() + " unique items (" + 
-            cart.values().stream().mapToInt(item -> item.quantity).sum() + 
-            " total units) for " + fmt.format(totalAmount) + "?",
+            "Confirm purchase of " + lines.size() + " unique items (" + 
+            lines.stream().mapToInt(CheckoutLine::getQuantity).sum() + 
+            " total units) for " + fmt.format(totalAmount.toBigDecimal()) + "?",
             "Confirm Checkout", JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
 
-        if (confirm != JOptionPane.YES_OPTION) return;
-
-        Connection conn = null;
-        boolean success = false;
-        try {
-            conn = DBConnection.getConnection();
-            conn.setAutoCommit(false); // Start transaction
-
-            String updateSql = "UPDATE gold_items SET quantity = quantity - ? WHERE item_id = ? AND quantity >= ?"; // Added quantity check
-            PreparedStatement updateStmt = conn.prepareStatement(updateSql);
-            
-            String insertSaleSql = "INSERT INTO sales (customer_id, item_id, sale_date, total_amount, quantity) VALUES (?, ?, ?, ?, ?)";
-            PreparedStatement saleStmt = conn.prepareStatement(insertSaleSql);
-
-            for (CartItem item : cart.values()) {
-                // Update inventory
-                updateStmt.setInt(1, item.quantity); // Quantity to deduct
-                updateStmt.setInt(2, item.itemId);
-                updateStmt.setInt(3, item.quantity); // Ensure stock is at least 'quantity' before deducting
-                
-                int rowsAffected = updateStmt.executeUpdate();
-                if (rowsAffected == 0) {
-                    // This means either item_id didn't exist, or stock became insufficient between validation and update
-                    throw new SQLException("Failed to update stock for item: " + item.name + ". Insufficient stock or item not found.");
-                }
-
-                // Record sale
-                saleStmt.setInt(1, currentUser.getUserId());
-                saleStmt.setInt(2, item.itemId);
-                saleStmt.setDate(3, Date.valueOf(LocalDate.now()));
-                saleStmt.setDouble(4, item.getLineTotal()); // Total amount for this specific line item
-                saleStmt.setInt(5, item.quantity); // Quantity for this specific line item
-                saleStmt.executeUpdate();
-            }
+        if (confirm != JOptionPane.YES_OPTION) {
+            checkoutInProgress = false;
+            return;
+        }
 
-            conn.commit(); // Commit transaction
-            success = true;
-            
-        } catch (SQLException e) {
-            if (conn != null) {
-                try { 
-                    conn.rollback(); // Rollback on error
-                } catch (SQLException rollbackEx) {
-                    rollbackEx.printStackTrace(); // Log rollback error
-                }
-            }
-            JOptionPane.showMessageDialog(this, "Purchase failed: " + e.getMessage(), 
-                                        "Error", JOptionPane.ERROR_MESSAGE);
-            e.printStackTrace(); // Print full stack trace for debugging
-        } finally {
-            if (conn != null) {
-                try { 
-                    conn.setAutoCommit(true); // Reset auto-commit mode
-                    conn.close(); 
-                } catch (SQLException closeEx) {
-                    closeEx.printStackTrace(); // Log close error
+        int customerId = currentUser.getUserId();
+        DataAccessExecutor.onEdt(
+            DataAccessExecutor.getShared().submit("checkout.commit", () -> {
+                // Earlier cart changes land first, so none can write a purchased line back afterwards
+                savedCart.flush();
+                CheckoutService.checkout(customerId, cartHolds.getId(), lines);
+                return null;
+            }),
+            ignored -> {
+                checkoutInProgress = false;
+                JOptionPane.showMessageDialog(this, 
+                    "✅ Purchase Successful!\nThank you for your order!",
+                    "Success", JOptionPane.INFORMATION_MESSAGE);
+                cart.clear();
+                updateCartTotal();
+                loadAvailableItems();
+                loadPurchaseHistory();
+                tabbedPane.setSelectedIndex(0); // Return to items tab
+            },
+            e -> {
+                checkoutInProgress = false;
+                if (e instanceof InsufficientStockException) {
+                    // Another customer bought the stock after the pre-check; nothing was charged
+                    JOptionPane.showMessageDialog(this, e.getMessage(),
+                        "Insufficient Stock", JOptionPane.WARNING_MESSAGE);
+                    loadAvailableItems();
+                    return;
                 }
-            }
-        }
-        
-        if (success) {
-            JOptionPane.showMessageDialog(this, 
-                "✅ Purchase Successful!\nThank you for your order!",
-                "Success", JOptionPane.INFORMATION_MESSAGE);
-            cart.clear();
-            updateCartTotal();
-            loadAvailableItems();
-            loadPurchaseHistory();
-            tabbedPane.setSelectedIndex(0); // Return to items tab
-        }
+                JOptionPane.showMessageDialog(this, "Purchase failed: " + e.getMessage(), 
+                                            "Error", JOptionPane.ERROR_MESSAGE);
+                e.printStackTrace(); // Print full stack trace for debugging
+            });
     }
 
+    // Rows are paged in as the table scrolls, newest purchase first
     private void loadPurchaseHistory() {
         if (historyModel == null) return;
-        historyModel.setRowCount(0);
-
-        String sql = "SELECT s.sale_id, g.name, g.weight_grams, g.purity_karat, s.total_amount, s.sale_date " +
-                     "FROM sales s JOIN gold_items g ON s.item_id = g.item_id " +
-                     "WHERE s.customer_id = ? ORDER BY s.sale_date DESC";
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, currentUser.getUserId());
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    historyModel.addRow(new Object[]{
-                        rs.getInt("sale_id"),
-                        rs.getString("name"),
-                        rs.getDouble("weight_grams"),
-                        rs.getInt("purity_karat") + "K",
-                        "₹" + rs.getDouble("total_amount"), // Already formatted from DB
-                        rs.getDate("sale_date")
-                    });
-                }
-            }
-        } catch (SQLException e) {
-            JOptionPane.showMessageDialog(this, "History Load Failed: " + e.getMessage(),
-                                          "Error", JOptionPane.ERROR_MESSAGE);
-            e.printStackTrace();
-        }
+        historyModel.setSource(SalesPageSources.byCustomer(currentUser.getUserId()));
     }
 
     // HELPER METHOD FOR STYLED BUTTONS
@@ -749,7 +1104,7 @@ public class CustomerDashboardFrame extends JFrame {
             }
 
             // If the item is already in the cart, default to that quantity
-            int itemId = (Integer) itemsModel.getValueAt(row, 8);
+            int itemId = itemsModel.getItemId(table.convertRowIndexToModel(row));
             CartItem cartItem = cart.get(itemId);
             int initialValue = (cartItem != null) ? cartItem.quantity : 1;
 
@@ -796,11 +1151,11 @@ public class CustomerDashboardFrame extends JFrame {
                 initialValue = item.quantity;
             }
 
-            // Get current stock from DB for validation
-            int effectiveAvailableStock = getAvailableStock(currentItemId); 
+            // Stock free for this cart at the last hold; updateCartItemQuantity re-checks it
+            int effectiveAvailableStock = (item != null) ? item.currentStock : initialValue;
             
             // The maximum quantity for the spinner should be the current available stock
-            spinner.setModel(new SpinnerNumberModel(initialValue, 1, Math.max(1, effectiveAvailableStock), 1)); 
+            spinner.setModel(new SpinnerNumberModel(initialValue, 1, Math.max(initialValue, effectiveAvailableStock), 1)); 
             return spinner;
         }
 
@@ -852,53 +1207,27 @@ public class CustomerDashboardFrame extends JFrame {
         @Override
         public Component getTableCellEditorComponent(JTable table, Object value,
                                                      boolean isSelected, int row, int column) {
-            editingRow = row;
+            editingRow = table.convertRowIndexToModel(row);
             return button;
         }
 
         @Override
         public Object getCellEditorValue() {
             try {
-                int itemId = (Integer) itemsModel.getValueAt(editingRow, 8);
-                String name = (String) itemsModel.getValueAt(editingRow, 0);
-                double weight = (Double) itemsModel.getValueAt(editingRow, 1);
-                int purity = (Integer) itemsModel.getValueAt(editingRow, 2);
+                GoldItem item = itemsModel.getItemAt(editingRow);
+                int itemId = item.getItemId();
+                String name = item.getName();
+                Weight weight = item.getWeight();
+                int purity = item.getPurityKarat();
                 // This is total price for ONE item from the 'gold_items' table
-                double totalPricePerUnit = (Double) itemsModel.getValueAt(editingRow, 4); 
-                int quantityToAdd = (Integer) itemsModel.getValueAt(editingRow, 6);
+                Money totalPricePerUnit = item.getTotalPrice();
+                int quantityToAdd = itemsModel.getPickedQuantity(editingRow);
                 
-                // Get current available stock from the database at this moment
-                int availableStock = getAvailableStock(itemId);
-                
-                // Check if item is already in cart
-                CartItem existingCartItem = cart.get(itemId);
-                int currentCartQuantity = (existingCartItem != null) ? existingCartItem.quantity : 0;
-
-                int potentialNewQuantity = currentCartQuantity + quantityToAdd;
-
-                if (potentialNewQuantity > availableStock) {
-                    JOptionPane.showMessageDialog(CustomerDashboardFrame.this,
-                        "Only " + availableStock + " items available in stock for " + name + 
-                        ". You have " + currentCartQuantity + " in cart. Cannot add " + quantityToAdd + ".",
-                        "Insufficient Stock", JOptionPane.WARNING_MESSAGE);
-                    return "Add to Cart"; // Don't proceed with adding
-                }
-                
-                // If item exists in cart, update its quantity
-                if (existingCartItem != null) {
-                    existingCartItem.quantity = potentialNewQuantity;
-                    cart.put(itemId, existingCartItem); // Put back to update
-                } else {
-                    // Otherwise, create a new cart item
-                    CartItem newItem = new CartItem(itemId, name, weight, purity, totalPricePerUnit, quantityToAdd);
-                    cart.put(itemId, newItem);
-                }
-                
-                updateCartTotal(); // Refresh cart display
-                
-                JOptionPane.showMessageDialog(CustomerDashboardFrame.this,
-                    "✅ Added/Updated " + quantityToAdd + " × " + name + " in cart! Total in cart: " + potentialNewQuantity,
-                    "Success", JOptionPane.INFORMATION_MESSAGE);
+                // Hold the cart's new total for this item; stock held by other carts is not available
+                CartItem inCart = cart.get(itemId);
+                int newTotal = (inCart != null ? inCart.quantity : 0) + quantityToAdd;
+                withHold(itemId, newTotal, availableStock ->
+                    addToCart(itemId, name, weight, purity, totalPricePerUnit, quantityToAdd, availableStock));
                     
             } catch (Exception e) {
                 JOptionPane.showMessageDialog(CustomerDashboardFrame.this,
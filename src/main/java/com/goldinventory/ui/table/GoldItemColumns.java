@@ -0,0 +1,154 @@
+package com.goldinventory.ui.table;
+
+import com.goldinventory.model.GoldItem;
+import com.goldinventory.model.Money;
+import com.goldinventory.model.Weight;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Gold item rows stored column by column for the table models: ids, purity, quantity and version in
+ * int[], weight (milligrams) and prices (paise) in long[], and names and statuses pooled so repeated
+ * strings are held once. Cell values are boxed only when asked for, so loading rows allocates nothing
+ * per cell. EDT only.
+ */
+public class GoldItemColumns {
+    private static final int INITIAL_CAPACITY = 256;
+
+    public enum Field { ITEM_ID, NAME, WEIGHT, PURITY, PRICE_PER_GRAM, TOTAL_PRICE, QUANTITY, STATUS }
+
+    private int size;
+    private int[] itemIds = new int[INITIAL_CAPACITY];
+    private int[] purities = new int[INITIAL_CAPACITY];
+    private int[] quantities = new int[INITIAL_CAPACITY];
+    private int[] versions = new int[INITIAL_CAPACITY];
+    private long[] weightMilligrams = new long[INITIAL_CAPACITY];
+    private long[] pricePerGramPaise = new long[INITIAL_CAPACITY];
+    private long[] totalPricePaise = new long[INITIAL_CAPACITY];
+    private String[] names = new String[INITIAL_CAPACITY];
+    private String[] statuses = new String[INITIAL_CAPACITY];
+    private final Map<String, String> pool = new HashMap<>();
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(names, 0, size, null);
+        Arrays.fill(statuses, 0, size, null);
+        size = 0;
+        pool.clear();
+    }
+
+    public void add(GoldItem item) {
+        insert(size, item);
+    }
+
+    public void insert(int row, GoldItem item) {
+        if (size == itemIds.length) grow();
+        if (row < size) {
+            shift(row, row + 1, size - row);
+        }
+        size++;
+        set(row, item);
+    }
+
+    public void set(int row, GoldItem item) {
+        itemIds[row] = item.getItemId();
+        names[row] = pooled(item.getName());
+        weightMilligrams[row] = item.getWeight().getMilligrams();
+        purities[row] = item.getPurityKarat();
+        pricePerGramPaise[row] = item.getPricePerGram().getPaise();
+        totalPricePaise[row] = item.getTotalPrice().getPaise();
+        quantities[row] = item.getQuantity();
+        statuses[row] = pooled(item.getStatus());
+        versions[row] = item.getVersion();
+    }
+
+    public void remove(int row) {
+        shift(row + 1, row, size - row - 1);
+        size--;
+        names[size] = null;
+        statuses[size] = null;
+    }
+
+    public int getItemId(int row) { return itemIds[row]; }
+    public String getName(int row) { return names[row]; }
+    public Weight getWeight(int row) { return Weight.ofMilligrams(weightMilligrams[row]); }
+    public int getPurityKarat(int row) { return purities[row]; }
+    public Money getPricePerGram(int row) { return Money.ofPaise(pricePerGramPaise[row]); }
+    public Money getTotalPrice(int row) { return Money.ofPaise(totalPricePaise[row]); }
+    public int getQuantity(int row) { return quantities[row]; }
+    public String getStatus(int row) { return statuses[row]; }
+
+    // Rebuilds the row as an item, e.g. for an edit that needs its version
+    public GoldItem getItem(int row) {
+        return new GoldItem(itemIds[row], names[row], getWeight(row), purities[row], getPricePerGram(row),
+                getTotalPrice(row), quantities[row], statuses[row], versions[row]);
+    }
+
+    // Binary search by item_id for rows kept in id order; returns -(insertion point) - 1 when absent
+    public int indexOfSorted(int itemId) {
+        return Arrays.binarySearch(itemIds, 0, size, itemId);
+    }
+
+    // Compares rows on the arrays as they are now; good until the rows change
+    public PermutationRowSorter.RowComparator comparator(Field field) {
+        switch (field) {
+            case ITEM_ID: return ints(itemIds);
+            case NAME: return strings(names);
+            case WEIGHT: return longs(weightMilligrams);
+            case PURITY: return ints(purities);
+            case PRICE_PER_GRAM: return longs(pricePerGramPaise);
+            case TOTAL_PRICE: return longs(totalPricePaise);
+            case QUANTITY: return ints(quantities);
+            default: return strings(statuses);
+        }
+    }
+
+    private static PermutationRowSorter.RowComparator ints(int[] keys) {
+        return (a, b) -> Integer.compare(keys[a], keys[b]);
+    }
+
+    private static PermutationRowSorter.RowComparator longs(long[] keys) {
+        return (a, b) -> Long.compare(keys[a], keys[b]);
+    }
+
+    private static PermutationRowSorter.RowComparator strings(String[] keys) {
+        return (a, b) -> String.CASE_INSENSITIVE_ORDER.compare(
+                keys[a] == null ? "" : keys[a], keys[b] == null ? "" : keys[b]);
+    }
+
+    private String pooled(String value) {
+        if (value == null) return null;
+        String existing = pool.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+
+    private void shift(int from, int to, int count) {
+        System.arraycopy(itemIds, from, itemIds, to, count);
+        System.arraycopy(purities, from, purities, to, count);
+        System.arraycopy(quantities, from, quantities, to, count);
+        System.arraycopy(versions, from, versions, to, count);
+        System.arraycopy(weightMilligrams, from, weightMilligrams, to, count);
+        System.arraycopy(pricePerGramPaise, from, pricePerGramPaise, to, count);
+        System.arraycopy(totalPricePaise, from, totalPricePaise, to, count);
+        System.arraycopy(names, from, names, to, count);
+        System.arraycopy(statuses, from, statuses, to, count);
+    }
+
+    private void grow() {
+        int capacity = itemIds.length * 2;
+        itemIds = Arrays.copyOf(itemIds, capacity);
+        purities = Arrays.copyOf(purities, capacity);
+        quantities = Arrays.copyOf(quantities, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+        weightMilligrams = Arrays.copyOf(weightMilligrams, capacity);
+        pricePerGramPaise = Arrays.copyOf(pricePerGramPaise, capacity);
+        totalPricePaise = Arrays.copyOf(totalPricePaise, capacity);
+        names = Arrays.copyOf(names, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+    }
+}
@@ -0,0 +1,23 @@
+package com.goldinventory.ui.table;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Keyset-paginated rows for {@link PagedTableModel}. Rows are ordered by a unique long key;
+ * a page is "the next limit rows after key", so no OFFSET scan is needed while scrolling.
+ * All methods run on a data-access worker thread.
+ */
+public interface PageSource<T> {
+    String getName();
+
+    int count() throws SQLException;
+
+    // Rows following afterKey in key order; afterKey null means from the first row
+    List<T> fetchPage(Long afterKey, int limit) throws SQLException;
+
+    // Key of the row at the given offset; used only when the user jumps past unloaded pages
+    long keyAtOffset(int offset) throws SQLException;
+
+    long keyOf(T row);
+}
@@ -0,0 +1,158 @@
+package com.goldinventory.ui.table;
+
+import com.goldinventory.service.async.DataAccessExecutor;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only table model that loads rows lazily, one page at a time, as the table paints them.
+ * Pages are fetched off the EDT with keyset pagination, kept in a bounded LRU,
+ * and the page after the one being viewed is prefetched. EDT only.
+ */
+public class PagedTableModel<T> extends AbstractTableModel {
+    private static final int DEFAULT_PAGE_SIZE = 200;
+    private static final int DEFAULT_MAX_CACHED_PAGES = 25;
+
+    private final String[] columns;
+    private final RowFormatter<T> formatter;
+    private final int pageSize;
+    private final int maxCachedPages;
+
+    private final LinkedHashMap<Integer, List<T>> pages;
+    // afterKeys.get(p) is the key of the last row before page p
+    private final Map<Integer, Long> afterKeys = new HashMap<>();
+    private final Set<Integer> pendingPages = new HashSet<>();
+    private final Set<Integer> failedPages = new HashSet<>();
+
+    private PageSource<T> source;
+    private int rowCount;
+    private int generation;
+    private Runnable onLoaded;
+
+    public PagedTableModel(String[] columns, RowFormatter<T> formatter) {
+        this(columns, formatter, DEFAULT_PAGE_SIZE, DEFAULT_MAX_CACHED_PAGES);
+    }
+
+    public PagedTableModel(String[] columns, RowFormatter<T> formatter, int pageSize, int maxCachedPages) {
+        this.columns = columns;
+        this.formatter = formatter;
+        this.pageSize = pageSize;
+        this.maxCachedPages = maxCachedPages;
+        this.pages = new LinkedHashMap<Integer, List<T>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+                return size() > PagedTableModel.this.maxCachedPages;
+            }
+        };
+    }
+
+    // Switches to a new source; the row count is fetched first, rows follow as they are painted
+    public void setSource(PageSource<T> newSource) {
+        int gen = ++generation;
+        source = newSource;
+        rowCount = 0;
+        pages.clear();
+        afterKeys.clear();
+        afterKeys.put(0, null);
+        pendingPages.clear();
+        failedPages.clear();
+        fireTableDataChanged();
+
+        DataAccessExecutor.onEdt(
+            DataAccessExecutor.getShared().submit("page.count." + newSource.getName(), newSource::count),
+            count -> {
+                if (gen != generation) return;
+                rowCount = count;
+                fireTableDataChanged();
+                if (onLoaded != null) onLoaded.run();
+            },
+            Throwable::printStackTrace);
+    }
+
+    public void reload() {
+        if (source != null) setSource(source);
+    }
+
+    public void setOnLoaded(Runnable onLoaded) {
+        this.onLoaded = onLoaded;
+    }
+
+    // Returns null while the row's page is still loading
+    public T getRow(int row) {
+        int page = row / pageSize;
+        List<T> rows = pages.get(page);
+        if (rows == null) {
+            requestPage(page);
+            return null;
+        }
+        if (page + 1 < pageCount() && !pages.containsKey(page + 1)) {
+            requestPage(page + 1);
+        }
+        int index = row % pageSize;
+        return index < rows.size() ? rows.get(index) : null;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        T value = getRow(row);
+        return value == null ? null : formatter.valueAt(value, column);
+    }
+
+    private int pageCount() {
+        return (rowCount + pageSize - 1) / pageSize;
+    }
+
+    private void requestPage(int page) {
+        if (source == null || pendingPages.contains(page) || failedPages.contains(page)) return;
+        pendingPages.add(page);
+        int gen = generation;
+        PageSource<T> pageSource = source;
+        boolean boundaryKnown = afterKeys.containsKey(page);
+        Long knownAfterKey = afterKeys.get(page);
+        int boundaryOffset = page * pageSize - 1;
+
+        DataAccessExecutor.onEdt(
+            DataAccessExecutor.getShared().submit("page.fetch." + pageSource.getName(), () -> {
+                Long afterKey = boundaryKnown ? knownAfterKey : Long.valueOf(pageSource.keyAtOffset(boundaryOffset));
+                return pageSource.fetchPage(afterKey, pageSize);
+            }),
+            rows -> {
+                if (gen != generation) return;
+                pendingPages.remove(page);
+                pages.put(page, rows);
+                if (!rows.isEmpty()) {
+                    afterKeys.put(page + 1, pageSource.keyOf(rows.get(rows.size() - 1)));
+                }
+                int first = page * pageSize;
+                int last = Math.min(first + pageSize, rowCount) - 1;
+                if (first <= last) fireTableRowsUpdated(first, last);
+            },
+            e -> {
+                if (gen != generation) return;
+                pendingPages.remove(page);
+                failedPages.add(page); // Do not retry on every repaint; reload() clears this
+                e.printStackTrace();
+            });
+    }
+}
@@ -0,0 +1,220 @@
+package com.goldinventory.ui.table;
+
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+import javax.swing.table.TableModel;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * Sorts and filters a table through an int[] view-to-model mapping. Sorting a column sorts a row
+ * permutation with a comparator over the model's primitive column; the permutation is kept until the
+ * model changes, so flipping the direction or refiltering only walks an int[]. One sort key at a time.
+ * EDT only.
+ */
+public class PermutationRowSorter<M extends TableModel> extends RowSorter<M> {
+
+    // Compares two model rows
+    public interface RowComparator {
+        int compare(int row1, int row2);
+    }
+
+    // A comparator over model rows for the column, or null if it cannot be sorted
+    public interface ColumnKeys<M> {
+        RowComparator keys(M model, int column);
+    }
+
+    private final M model;
+    private final ColumnKeys<M> columnKeys;
+    private final Map<Integer, int[]> ascendingByColumn = new HashMap<>();
+
+    private SortKey sortKey;
+    private IntPredicate rowFilter;
+    // null while rows are shown in model order, unfiltered
+    private int[] viewToModel;
+    private int[] modelToView;
+
+    public PermutationRowSorter(M model, ColumnKeys<M> columnKeys) {
+        this.model = model;
+        this.columnKeys = columnKeys;
+    }
+
+    // Keeps only model rows the filter accepts; null shows them all. Replaces the view in one step
+    public void setRowFilter(IntPredicate filter) {
+        rowFilter = filter;
+        rebuild();
+    }
+
+    @Override
+    public M getModel() {
+        return model;
+    }
+
+    @Override
+    public void toggleSortOrder(int column) {
+        SortOrder order = sortKey != null && sortKey.getColumn() == column
+                && sortKey.getSortOrder() == SortOrder.ASCENDING ? SortOrder.DESCENDING : SortOrder.ASCENDING;
+        setSortKeys(Collections.singletonList(new SortKey(column, order)));
+    }
+
+    @Override
+    public void setSortKeys(List<? extends SortKey> keys) {
+        SortKey key = keys == null || keys.isEmpty() ? null : keys.get(0);
+        if (key != null && (key.getSortOrder() == SortOrder.UNSORTED || ascending(key.getColumn()) == null)) {
+            key = null;
+        }
+        if (key == null ? sortKey == null : key.equals(sortKey)) return;
+        sortKey = key;
+        fireSortOrderChanged();
+        rebuild();
+    }
+
+    @Override
+    public List<? extends SortKey> getSortKeys() {
+        return sortKey == null ? Collections.emptyList() : Collections.singletonList(sortKey);
+    }
+
+    @Override
+    public int convertRowIndexToModel(int index) {
+        if (viewToModel == null) return index;
+        return viewToModel[index];
+    }
+
+    @Override
+    public int convertRowIndexToView(int index) {
+        if (viewToModel == null) return index;
+        if (index < 0 || index >= modelToView.length) return -1;
+        return modelToView[index];
+    }
+
+    @Override
+    public int getViewRowCount() {
+        return viewToModel == null ? model.getRowCount() : viewToModel.length;
+    }
+
+    @Override
+    public int getModelRowCount() {
+        return model.getRowCount();
+    }
+
+    @Override
+    public void modelStructureChanged() {
+        if (sortKey != null) {
+            sortKey = null;
+            fireSortOrderChanged();
+        }
+        modelChanged();
+    }
+
+    @Override
+    public void allRowsChanged() {
+        modelChanged();
+    }
+
+    @Override
+    public void rowsInserted(int firstRow, int endRow) {
+        modelChanged();
+    }
+
+    @Override
+    public void rowsDeleted(int firstRow, int endRow) {
+        modelChanged();
+    }
+
+    @Override
+    public void rowsUpdated(int firstRow, int endRow) {
+        // Filters here look at row identity, not cell values, so only a sorted view can move
+        ascendingByColumn.clear();
+        if (sortKey != null) rebuild();
+    }
+
+    @Override
+    public void rowsUpdated(int firstRow, int endRow, int column) {
+        ascendingByColumn.remove(column);
+        if (sortKey != null && sortKey.getColumn() == column) rebuild();
+    }
+
+    private void modelChanged() {
+        ascendingByColumn.clear();
+        rebuild();
+    }
+
+    private void rebuild() {
+        int rows = model.getRowCount();
+        // The table maps its selection through the previous order, so identity is spelled out
+        int[] previous = viewToModel;
+        if (previous == null) {
+            previous = new int[rows];
+            for (int i = 0; i < rows; i++) previous[i] = i;
+        }
+        int[] order = sortKey == null ? null : ascending(sortKey.getColumn());
+        if (order == null && rowFilter == null) {
+            viewToModel = null;
+            modelToView = null;
+        } else {
+            boolean descending = order != null && sortKey.getSortOrder() == SortOrder.DESCENDING;
+            int[] view = new int[rows];
+            int[] toView = new int[rows];
+            int count = 0;
+            for (int i = 0; i < rows; i++) {
+                int row = order == null ? i : order[descending ? rows - 1 - i : i];
+                if (rowFilter != null && !rowFilter.test(row)) {
+                    toView[row] = -1;
+                } else {
+                    toView[row] = count;
+                    view[count++] = row;
+                }
+            }
+            viewToModel = count == rows ? view : Arrays.copyOf(view, count);
+            modelToView = toView;
+        }
+        fireRowSorterChanged(previous);
+    }
+
+    // Model rows in ascending order of the column, computed once per model change
+    private int[] ascending(int column) {
+        int[] order = ascendingByColumn.get(column);
+        if (order != null) return order;
+        RowComparator comparator = columnKeys.keys(model, column);
+        if (comparator == null) return null;
+        int rows = model.getRowCount();
+        order = new int[rows];
+        for (int i = 0; i < rows; i++) order[i] = i;
+        mergeSort(order, new int[rows], 0, rows, comparator);
+        ascendingByColumn.put(column, order);
+        return order;
+    }
+
+    // Stable, so equal keys stay in model order
+    private static void mergeSort(int[] rows, int[] scratch, int from, int to, RowComparator comparator) {
+        if (to - from < 16) {
+            for (int i = from + 1; i < to; i++) {
+                int row = rows[i];
+                int j = i - 1;
+                while (j >= from && comparator.compare(rows[j], row) > 0) {
+                    rows[j + 1] = rows[j];
+                    j--;
+                }
+                rows[j + 1] = row;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(rows, scratch, from, mid, comparator);
+        mergeSort(rows, scratch, mid, to, comparator);
+        if (comparator.compare(rows[mid - 1], rows[mid]) <= 0) return;
+        System.arraycopy(rows, from, scratch, from, to - from);
+        int left = from, right = mid;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < mid && comparator.compare(scratch[left], scratch[right]) <= 0)) {
+                rows[i] = scratch[left++];
+            } else {
+                rows[i] = scratch[right++];
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.goldinventory.ui.table;
+
+/**
+ * Maps one row object to the value shown in a table column.
+ */
+public interface RowFormatter<T> {
+    Object valueAt(T row, int column);
+}
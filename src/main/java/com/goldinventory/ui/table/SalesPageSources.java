@@ -0,0 +1,61 @@
+package com.goldinventory.ui.table;
+
+import com.goldinventory.model.SaleRecord;
+import com.goldinventory.repository.SalesRepository;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Page sources over the sales table, keyed by sale_id.
+ */
+public class SalesPageSources {
+
+    // One day's sales in sale_id order, for the admin Sales Report
+    public static PageSource<SaleRecord> byDate(LocalDate saleDate) {
+        return new PageSource<SaleRecord>() {
+            @Override public String getName() { return "sales.byDate"; }
+
+            @Override public int count() throws SQLException {
+                return SalesRepository.countByDate(saleDate);
+            }
+
+            @Override public List<SaleRecord> fetchPage(Long afterKey, int limit) throws SQLException {
+                return SalesRepository.findPageByDate(saleDate, afterKey == null ? 0 : afterKey.intValue(), limit);
+            }
+
+            @Override public long keyAtOffset(int offset) throws SQLException {
+                return SalesRepository.saleIdAtOffsetByDate(saleDate, offset);
+            }
+
+            @Override public long keyOf(SaleRecord row) {
+                return row.getSaleId();
+            }
+        };
+    }
+
+    // A customer's purchases, newest first, for Purchase History
+    public static PageSource<SaleRecord> byCustomer(int customerId) {
+        return new PageSource<SaleRecord>() {
+            @Override public String getName() { return "sales.byCustomer"; }
+
+            @Override public int count() throws SQLException {
+                return SalesRepository.countByCustomer(customerId);
+            }
+
+            @Override public List<SaleRecord> fetchPage(Long afterKey, int limit) throws SQLException {
+                return SalesRepository.findPageByCustomer(customerId,
+                        afterKey == null ? Integer.MAX_VALUE : afterKey.intValue(), limit);
+            }
+
+            @Override public long keyAtOffset(int offset) throws SQLException {
+                return SalesRepository.saleIdAtOffsetByCustomer(customerId, offset);
+            }
+
+            @Override public long keyOf(SaleRecord row) {
+                return row.getSaleId();
+            }
+        };
+    }
+}
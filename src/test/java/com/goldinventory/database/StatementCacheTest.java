@@ -0,0 +1,125 @@
+package com.goldinventory.database;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class StatementCacheTest {
+    private static final String SQL = "SELECT quantity FROM gold_items WHERE item_id = ?";
+
+    private final List<StubStatement> prepared = new ArrayList<>();
+    private StatementCacheStats stats;
+    private StatementCache cache;
+
+    @Before
+    public void setUp() {
+        Connection physical = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    if ("prepareStatement".equals(method.getName())) {
+                        StubStatement stub = new StubStatement();
+                        prepared.add(stub);
+                        return stub.proxy;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        stats = new StatementCacheStats();
+        cache = new StatementCache(physical, 2, stats);
+    }
+
+    @Test
+    public void closedLeaseIsReused() throws SQLException {
+        cache.lease(SQL, null).close();
+        PreparedStatement again = cache.lease(SQL, null);
+
+        assertEquals(1, prepared.size());
+        assertFalse(again.isClosed());
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+    }
+
+    @Test
+    public void sameSqlLeasedTwiceAtOnceIsNotShared() throws SQLException {
+        assertNotNull(cache.lease(SQL, null));
+        assertNull(cache.lease(SQL, null));
+    }
+
+    @Test
+    public void statementThatFailsToResetIsPreparedAgain() throws SQLException {
+        PreparedStatement lease = cache.lease(SQL, null);
+        prepared.get(0).failReset = true;
+        lease.close();
+
+        assertTrue(prepared.get(0).closed);
+        assertEquals(1, stats.getEvictions());
+
+        PreparedStatement again = cache.lease(SQL, null);
+        assertEquals(2, prepared.size());
+        assertFalse(again.isClosed());
+        again.executeQuery();
+        assertEquals(1, prepared.get(1).executions);
+        assertEquals(2, stats.getMisses());
+    }
+
+    @Test
+    public void leastRecentlyUsedIsClosedOnceReleased() throws SQLException {
+        PreparedStatement first = cache.lease("SELECT 1", null);
+        cache.lease("SELECT 2", null).close();
+        cache.lease("SELECT 3", null).close();
+
+        // Pushed out while leased: still usable until its borrower is done
+        assertFalse(prepared.get(0).closed);
+        first.close();
+        assertTrue(prepared.get(0).closed);
+        assertEquals(1, stats.getEvictions());
+    }
+
+    private static class StubStatement {
+        final PreparedStatement proxy;
+        boolean failReset;
+        boolean closed;
+        int executions;
+
+        StubStatement() {
+            proxy = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, (p, method, args) -> {
+                        switch (method.getName()) {
+                            case "clearParameters":
+                                if (failReset) throw new SQLException("Connection reset");
+                                return null;
+                            case "close":
+                                closed = true;
+                                return null;
+                            case "isClosed":
+                                return closed;
+                            case "executeQuery":
+                                if (closed) throw new SQLException("Statement is closed");
+                                executions++;
+                                return null;
+                            case "clearBatch":
+                                return null;
+                            case "getFetchSize":
+                            case "getMaxRows":
+                            case "getQueryTimeout":
+                                return 0;
+                            case "getFetchDirection":
+                                return ResultSet.FETCH_FORWARD;
+                            default:
+                                throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+        }
+    }
+}
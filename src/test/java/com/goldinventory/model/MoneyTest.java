@@ -0,0 +1,129 @@
+package com.goldinventory.model;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MoneyTest {
+
+    @Test
+    public void parseRoundsHalfUpToThePaisa() {
+        assertEquals(625050, Money.parse("6250.5").getPaise());
+        assertEquals(625051, Money.parse(" 6250.505 ").getPaise());
+        assertEquals(625050, Money.parse("6250.504").getPaise());
+        assertEquals(-625051, Money.parse("-6250.505").getPaise());
+    }
+
+    @Test
+    public void ofRoundsWithTheGivenMode() {
+        BigDecimal rupees = new BigDecimal("10.125");
+        assertEquals(1013, Money.of(rupees, RoundingMode.HALF_UP).getPaise());
+        assertEquals(1012, Money.of(rupees, RoundingMode.HALF_EVEN).getPaise());
+        assertEquals(1012, Money.of(rupees, RoundingMode.DOWN).getPaise());
+    }
+
+    @Test
+    public void toBigDecimalRoundTrips() {
+        long[] samples = {0, 1, -1, 99, 100, -12345, 625050, Long.MAX_VALUE, Long.MIN_VALUE};
+        for (long paise : samples) {
+            Money money = Money.ofPaise(paise);
+            assertEquals(2, money.toBigDecimal().scale());
+            assertEquals(money, Money.of(money.toBigDecimal(), RoundingMode.UNNECESSARY));
+            assertEquals(money, Money.parse(money.toString()));
+        }
+    }
+
+    @Test
+    public void toStringKeepsTwoDecimals() {
+        assertEquals("6250.50", Money.ofPaise(625050).toString());
+        assertEquals("0.00", Money.ZERO.toString());
+        assertEquals("-0.05", Money.ofPaise(-5).toString());
+    }
+
+    @Test
+    public void zeroIsShared() {
+        assertSame(Money.ZERO, Money.ofPaise(0));
+        assertSame(Money.ZERO, Money.ofPaise(5).minus(Money.ofPaise(5)));
+    }
+
+    @Test
+    public void arithmeticIsExact() {
+        Money price = Money.ofPaise(625050);
+        assertEquals(1250100, price.plus(price).getPaise());
+        assertEquals(-625050, Money.ZERO.minus(price).getPaise());
+        assertEquals(1875150, price.times(3).getPaise());
+        assertTrue(price.isPositive());
+        assertFalse(Money.ofPaise(-1).isPositive());
+        assertTrue(Money.ofPaise(-1).compareTo(Money.ZERO) < 0);
+    }
+
+    @Test
+    public void overflowThrows() {
+        Money max = Money.ofPaise(Long.MAX_VALUE);
+        expectArithmetic(() -> max.plus(Money.ofPaise(1)));
+        expectArithmetic(() -> Money.ofPaise(Long.MIN_VALUE).minus(Money.ofPaise(1)));
+        expectArithmetic(() -> max.times(2));
+        expectArithmetic(() -> max.times(3, 2, RoundingMode.HALF_UP));
+        expectArithmetic(() -> Money.of(new BigDecimal("1e20"), RoundingMode.HALF_UP));
+    }
+
+    @Test
+    public void purityFactorRounds() {
+        // 22K from a 24K rate of 6,250.50 a gram: 625050 * 22 / 24 = 572962.5 paise
+        Money fine = Money.ofPaise(625050);
+        assertEquals(572963, fine.times(22, 24, RoundingMode.HALF_UP).getPaise());
+        assertEquals(572962, fine.times(22, 24, RoundingMode.HALF_EVEN).getPaise());
+        assertEquals(572962, fine.times(22, 24, RoundingMode.DOWN).getPaise());
+        assertEquals(-572963, fine.times(-22, 24, RoundingMode.HALF_UP).getPaise());
+    }
+
+    @Test
+    public void timesWeightPricesMilligrams() {
+        Money perGram = Money.ofPaise(625050);
+        // 12.345 g at 6,250.50 = 77,162.42 (77162.42225)
+        assertEquals(7716242, perGram.timesWeight(Weight.ofMilligrams(12345), RoundingMode.HALF_UP).getPaise());
+        assertEquals(0, perGram.timesWeight(Weight.ZERO, RoundingMode.HALF_UP).getPaise());
+    }
+
+    @Test
+    public void divideMatchesBigDecimalForEveryMode() {
+        long[] dividends = {0, 1, -1, 2, -2, 5, -5, 7, -7, 15, -15, 25, -25, 999, -999, 1001, -1001,
+                Long.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE - 1, Long.MIN_VALUE + 1};
+        long[] divisors = {1, -1, 2, -2, 3, -3, 4, 10, -10, 24, 1000, -1000, Long.MAX_VALUE, Long.MIN_VALUE};
+        RoundingMode[] modes = {RoundingMode.UP, RoundingMode.DOWN, RoundingMode.CEILING, RoundingMode.FLOOR,
+                RoundingMode.HALF_UP, RoundingMode.HALF_DOWN, RoundingMode.HALF_EVEN};
+        for (long dividend : dividends) {
+            for (long divisor : divisors) {
+                if (dividend == Long.MIN_VALUE && divisor == -1) continue; // Does not fit in a long
+                for (RoundingMode mode : modes) {
+                    long expected = BigDecimal.valueOf(dividend)
+                            .divide(BigDecimal.valueOf(divisor), 0, mode).longValueExact();
+                    assertEquals(dividend + " / " + divisor + " " + mode,
+                            expected, Money.divide(dividend, divisor, mode));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void divideUnnecessaryThrowsOnlyWhenInexact() {
+        assertEquals(5, Money.divide(10, 2, RoundingMode.UNNECESSARY));
+        expectArithmetic(() -> Money.divide(10, 3, RoundingMode.UNNECESSARY));
+    }
+
+    private static void expectArithmetic(Runnable action) {
+        try {
+            action.run();
+            fail("Expected ArithmeticException");
+        } catch (ArithmeticException expected) {
+            // Expected
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.goldinventory.model;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class WeightTest {
+
+    @Test
+    public void parseGramsRoundsHalfUpToTheMilligram() {
+        assertEquals(12500, Weight.parseGrams("12.5").getMilligrams());
+        assertEquals(12346, Weight.parseGrams(" 12.3455 ").getMilligrams());
+        assertEquals(12345, Weight.parseGrams("12.3454").getMilligrams());
+        assertEquals(-12346, Weight.parseGrams("-12.3455").getMilligrams());
+    }
+
+    @Test
+    public void toGramsRoundTrips() {
+        long[] samples = {0, 1, -1, 999, 1000, 12345, -12345, Long.MAX_VALUE, Long.MIN_VALUE};
+        for (long milligrams : samples) {
+            Weight weight = Weight.ofMilligrams(milligrams);
+            assertEquals(3, weight.toGrams().scale());
+            assertEquals(weight, Weight.parseGrams(weight.toGrams().toPlainString()));
+            assertEquals(weight, Weight.parseGrams(weight.toString()));
+        }
+    }
+
+    @Test
+    public void toStringDropsTrailingZeros() {
+        assertEquals("12.5", Weight.ofMilligrams(12500).toString());
+        assertEquals("12", Weight.ofMilligrams(12000).toString());
+        assertEquals("0.001", Weight.ofMilligrams(1).toString());
+        assertEquals("-0.5", Weight.ofMilligrams(-500).toString());
+        assertEquals("0", Weight.ZERO.toString());
+    }
+
+    @Test
+    public void arithmeticIsExact() {
+        Weight weight = Weight.ofMilligrams(12345);
+        assertEquals(24690, weight.plus(weight).getMilligrams());
+        assertEquals(37035, weight.times(3).getMilligrams());
+        assertEquals(-12345, weight.times(-1).getMilligrams());
+        assertTrue(weight.isPositive());
+        assertFalse(Weight.ofMilligrams(-1).isPositive());
+        assertSame(Weight.ZERO, Weight.ofMilligrams(0));
+        assertEquals(12.345, weight.toGramsDouble(), 0.0);
+    }
+
+    @Test
+    public void overflowThrows() {
+        Weight max = Weight.ofMilligrams(Long.MAX_VALUE);
+        expectArithmetic(() -> max.plus(Weight.ofMilligrams(1)));
+        expectArithmetic(() -> max.times(2));
+        expectArithmetic(() -> Weight.parseGrams(new BigDecimal("1e17").toPlainString()));
+    }
+
+    private static void expectArithmetic(Runnable action) {
+        try {
+            action.run();
+            fail("Expected ArithmeticException");
+        } catch (ArithmeticException expected) {
+            // Expected
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.goldinventory.service;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class CsvExporterTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void putLongWritesExtremes() throws IOException {
+        assertEquals("0,7,-7,9223372036854775807,-9223372036854775808", write(false, sink -> {
+            sink.putLong(0);
+            sink.putByte(',');
+            sink.putLong(7);
+            sink.putByte(',');
+            sink.putLong(-7);
+            sink.putByte(',');
+            sink.putLong(Long.MAX_VALUE);
+            sink.putByte(',');
+            sink.putLong(Long.MIN_VALUE);
+        }));
+    }
+
+    @Test
+    public void putScaledKeepsTheSignAndPadsTheFraction() throws IOException {
+        assertEquals("12.345|0.005|-12.345|-0.005|-1.000|0.00|-0.01|-92233720368547758.08", write(false, sink -> {
+            sink.putScaled(12345, 3);
+            sink.putByte('|');
+            sink.putScaled(5, 3);
+            sink.putByte('|');
+            sink.putScaled(-12345, 3);
+            sink.putByte('|');
+            sink.putScaled(-5, 3);
+            sink.putByte('|');
+            sink.putScaled(-1000, 3);
+            sink.putByte('|');
+            sink.putScaled(0, 2);
+            sink.putByte('|');
+            sink.putScaled(-1, 2);
+            sink.putByte('|');
+            sink.putScaled(Long.MIN_VALUE, 2);
+        }));
+    }
+
+    @Test
+    public void putFieldQuotesOnlyWhenNeeded() throws IOException {
+        assertEquals("Plain Ring", field("Plain Ring"));
+        assertEquals("\"Ring, 22K\"", field("Ring, 22K"));
+        assertEquals("\"The \"\"Royal\"\" Set\"", field("The \"Royal\" Set"));
+        assertEquals("\"two\nlines\"", field("two\nlines"));
+        assertEquals("\"carriage\rreturn\"", field("carriage\rreturn"));
+        assertEquals("", field(""));
+        assertEquals("", write(false, sink -> sink.putField(null)));
+    }
+
+    @Test
+    public void putFieldEncodesUtf8() throws IOException {
+        String name = "Café ₹ हार 💍";
+        assertArrayEquals(name.getBytes(StandardCharsets.UTF_8), bytes(false, sink -> sink.putField(name)));
+    }
+
+    @Test
+    public void putFieldReplacesLoneSurrogates() throws IOException {
+        assertEquals("a?b", field("a\uD83Db"));
+        assertEquals("a?b", field("a\uDC8Db"));
+        assertEquals("end?", field("end\uD83D"));
+        assertEquals("??", field("\uDC8D\uD83D"));
+    }
+
+    @Test
+    public void putFieldSpansBufferFlushes() throws IOException {
+        StringBuilder name = new StringBuilder();
+        while (name.length() < 200_000) {
+            name.append("₹💍a");
+        }
+        String value = name.toString();
+        assertArrayEquals(value.getBytes(StandardCharsets.UTF_8), bytes(false, sink -> sink.putField(value)));
+    }
+
+    @Test
+    public void putDateWritesIsoDates() throws IOException {
+        assertEquals("2024-02-29,2024-02-29,0999-01-05", write(false, sink -> {
+            sink.putDate(Date.valueOf(LocalDate.of(2024, 2, 29)));
+            sink.putByte(',');
+            sink.putDate(Date.valueOf(LocalDate.of(2024, 2, 29)));
+            sink.putByte(',');
+            sink.putDate(Date.valueOf(LocalDate.of(999, 1, 5)));
+        }));
+    }
+
+    @Test
+    public void gzipOutputIsReadableAndHasAValidTrailer() throws IOException {
+        // More than one buffer of text, so the deflater is fed several times
+        StringBuilder expected = new StringBuilder();
+        File file = folder.newFile("sales.csv.gz");
+        try (CsvExporter.ChannelSink sink = new CsvExporter.ChannelSink(file, true)) {
+            for (int row = 0; row < 40_000; row++) {
+                sink.putLong(row);
+                sink.putByte(',');
+                sink.putField("Ring " + row % 97 + " ₹");
+                sink.putByte(',');
+                sink.putScaled(row * 1_234L - 50_000, 2);
+                sink.putByte('\n');
+                expected.append(row).append(',').append("Ring ").append(row % 97).append(" ₹").append(',')
+                        .append(java.math.BigDecimal.valueOf(row * 1_234L - 50_000, 2).toPlainString()).append('\n');
+            }
+            sink.finish();
+        }
+        byte[] text = expected.toString().getBytes(StandardCharsets.UTF_8);
+
+        // GZIPInputStream itself rejects a wrong CRC or ISIZE
+        byte[] inflated;
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file.toPath()))) {
+            inflated = readAll(in);
+        }
+        assertArrayEquals(text, inflated);
+
+        byte[] gzip = Files.readAllBytes(file.toPath());
+        ByteBuffer trailer = ByteBuffer.wrap(gzip, gzip.length - 8, 8).order(ByteOrder.LITTLE_ENDIAN);
+        CRC32 crc = new CRC32();
+        crc.update(text);
+        assertEquals((int) crc.getValue(), trailer.getInt());
+        assertEquals(text.length, trailer.getInt());
+    }
+
+    @Test
+    public void emptyGzipIsReadable() throws IOException {
+        byte[] gzip = bytes(true, sink -> { });
+        File file = folder.newFile("empty.csv.gz");
+        Files.write(file.toPath(), gzip);
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file.toPath()))) {
+            assertEquals(0, readAll(in).length);
+        }
+        assertEquals(0, ByteBuffer.wrap(gzip, gzip.length - 4, 4).order(ByteOrder.LITTLE_ENDIAN).getInt());
+    }
+
+    private String field(String value) throws IOException {
+        return write(false, sink -> sink.putField(value));
+    }
+
+    private String write(boolean gzip, SinkWriter writer) throws IOException {
+        return new String(bytes(gzip, writer), StandardCharsets.UTF_8);
+    }
+
+    private byte[] bytes(boolean gzip, SinkWriter writer) throws IOException {
+        File file = folder.newFile();
+        try (CsvExporter.ChannelSink sink = new CsvExporter.ChannelSink(file, gzip)) {
+            writer.write(sink);
+            sink.finish();
+        }
+        return Files.readAllBytes(file.toPath());
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private interface SinkWriter {
+        void write(CsvExporter.ChannelSink sink) throws IOException;
+    }
+}
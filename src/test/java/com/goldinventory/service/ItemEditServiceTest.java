@@ -0,0 +1,137 @@
+package com.goldinventory.service;
+
+import com.goldinventory.model.GoldItem;
+import com.goldinventory.model.Money;
+import com.goldinventory.model.Weight;
+import org.junit.Test;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class ItemEditServiceTest {
+    private static final GoldItem BASE = item("Ring", 10_000, 22, 600_000, 10, 3);
+
+    private final List<String> conflicts = new ArrayList<>();
+
+    @Test
+    public void onlyMineChangedKeepsMine() {
+        GoldItem mine = item("Gold Ring", 12_000, 22, 600_000, 10, 3);
+
+        GoldItem merged = ItemEditService.merge(BASE, mine, withVersion(BASE, 4), conflicts);
+
+        assertEquals("Gold Ring", merged.getName());
+        assertEquals(Weight.ofMilligrams(12_000), merged.getWeight());
+        assertEquals(Collections.emptyList(), conflicts);
+    }
+
+    @Test
+    public void onlyTheirsChangedKeepsTheirs() {
+        GoldItem theirs = item("Band", 10_000, 18, 500_000, 7, 4);
+
+        GoldItem merged = ItemEditService.merge(BASE, BASE, theirs, conflicts);
+
+        assertEquals("Band", merged.getName());
+        assertEquals(18, merged.getPurityKarat());
+        assertEquals(Money.ofPaise(500_000), merged.getPricePerGram());
+        assertEquals(7, merged.getQuantity());
+        assertEquals(Collections.emptyList(), conflicts);
+    }
+
+    @Test
+    public void disjointChangesAreCombined() {
+        GoldItem mine = item("Gold Ring", 10_000, 22, 600_000, 10, 3);
+        GoldItem theirs = item("Ring", 10_000, 22, 650_000, 10, 4);
+
+        GoldItem merged = ItemEditService.merge(BASE, mine, theirs, conflicts);
+
+        assertEquals("Gold Ring", merged.getName());
+        assertEquals(Money.ofPaise(650_000), merged.getPricePerGram());
+        assertEquals(Collections.emptyList(), conflicts);
+    }
+
+    @Test
+    public void bothChangedToTheSameValueIsNoConflict() {
+        GoldItem mine = item("Band", 11_000, 22, 600_000, 10, 3);
+        GoldItem theirs = item("Band", 11_000, 22, 600_000, 10, 4);
+
+        GoldItem merged = ItemEditService.merge(BASE, mine, theirs, conflicts);
+
+        assertEquals("Band", merged.getName());
+        assertEquals(Weight.ofMilligrams(11_000), merged.getWeight());
+        assertEquals(Collections.emptyList(), conflicts);
+    }
+
+    @Test
+    public void bothChangedDifferentlyKeepsMineAndReportsConflicts() {
+        GoldItem mine = item("Gold Ring", 10_000, 24, 600_000, 10, 3);
+        GoldItem theirs = item("Band", 10_000, 18, 600_000, 10, 4);
+
+        GoldItem merged = ItemEditService.merge(BASE, mine, theirs, conflicts);
+
+        assertEquals("Gold Ring", merged.getName());
+        assertEquals(24, merged.getPurityKarat());
+        assertEquals(Arrays.asList("Name", "Purity"), conflicts);
+    }
+
+    @Test
+    public void bothChangedQuantityAppliesMyDeltaToTheirStock() {
+        // The admin restocked 10 -> 15 while two were sold, 10 -> 8
+        GoldItem mine = item("Ring", 10_000, 22, 600_000, 15, 3);
+        GoldItem theirs = item("Ring", 10_000, 22, 600_000, 8, 4);
+
+        GoldItem merged = ItemEditService.merge(BASE, mine, theirs, conflicts);
+
+        assertEquals(13, merged.getQuantity());
+        assertEquals(Collections.singletonList("Quantity"), conflicts);
+    }
+
+    @Test
+    public void quantityDeltaNeverGoesNegative() {
+        GoldItem mine = item("Ring", 10_000, 22, 600_000, 2, 3);
+        GoldItem theirs = item("Ring", 10_000, 22, 600_000, 1, 4);
+
+        assertEquals(0, ItemEditService.merge(BASE, mine, theirs, conflicts).getQuantity());
+    }
+
+    @Test
+    public void onlyMyQuantityChangedKeepsMine() {
+        GoldItem mine = item("Ring", 10_000, 22, 600_000, 12, 3);
+
+        GoldItem merged = ItemEditService.merge(BASE, mine, withVersion(BASE, 4), conflicts);
+
+        assertEquals(12, merged.getQuantity());
+        assertEquals(Collections.emptyList(), conflicts);
+    }
+
+    @Test
+    public void mergedRowTakesTheirVersionAndStatusAndRecomputesTotal() {
+        GoldItem mine = item("Ring", 12_345, 22, 600_000, 10, 3);
+        GoldItem theirs = new GoldItem(1, "Ring", Weight.ofMilligrams(10_000), 22, Money.ofPaise(650_000),
+                Money.ofPaise(6_500_000), 10, "sold", 9);
+
+        GoldItem merged = ItemEditService.merge(BASE, mine, theirs, conflicts);
+
+        assertEquals(9, merged.getVersion());
+        assertEquals("sold", merged.getStatus());
+        assertEquals(Money.ofPaise(650_000).timesWeight(Weight.ofMilligrams(12_345), RoundingMode.HALF_UP),
+                merged.getTotalPrice());
+    }
+
+    private static GoldItem item(String name, long milligrams, int purity, long pricePerGramPaise,
+                                 int quantity, int version) {
+        Weight weight = Weight.ofMilligrams(milligrams);
+        Money price = Money.ofPaise(pricePerGramPaise);
+        return new GoldItem(1, name, weight, purity, price, price.timesWeight(weight, RoundingMode.HALF_UP),
+                quantity, "available", version);
+    }
+
+    private static GoldItem withVersion(GoldItem item, int version) {
+        return new GoldItem(item.getItemId(), item.getName(), item.getWeight(), item.getPurityKarat(),
+                item.getPricePerGram(), item.getTotalPrice(), item.getQuantity(), item.getStatus(), version);
+    }
+}
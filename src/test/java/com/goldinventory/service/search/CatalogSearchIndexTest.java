@@ -0,0 +1,227 @@
+package com.goldinventory.service.search;
+
+import com.goldinventory.model.GoldItem;
+import com.goldinventory.model.Money;
+import com.goldinventory.model.Weight;
+import com.goldinventory.service.GoldItemCatalog;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class CatalogSearchIndexTest {
+    private CatalogSearchIndex index;
+
+    @Before
+    public void setUp() {
+        index = new CatalogSearchIndex(new GoldItemCatalog());
+        index.build(Arrays.asList(
+                item(1, "Royal Necklace", 22, 25_000, 3),
+                item(2, "Temple Bangle", 22, 12_000, 5),
+                item(3, "Necklace Set", 18, 60_000, 1),
+                item(4, "Nose Pin", 18, 1_500, 0),
+                item(5, "Navaratna Ring", 24, 8_000, 2)));
+    }
+
+    @Test
+    public void emptyQueryMatchesEverything() {
+        assertArrayEquals(new int[]{1, 2, 3, 4, 5}, index.search(CatalogQuery.ALL));
+    }
+
+    @Test
+    public void trigramsMatchAnywhereInAWord() {
+        assertArrayEquals(new int[]{1, 3}, search("ckl"));
+        assertArrayEquals(new int[]{1, 3}, search("LACE"));
+        assertArrayEquals(new int[]{2}, search("mpl"));
+        assertArrayEquals(new int[0], search("cklz"));
+        assertArrayEquals(new int[0], search("xyz"));
+    }
+
+    @Test
+    public void longTermsAreConfirmedAgainstTheName() {
+        // "Face Cell" has both trigrams of "acel", in different words, but not "acel" itself
+        index.catalogChanged(Collections.singletonList(item(6, "Face Cell", 22, 1_000, 1)), Collections.emptyList());
+        assertArrayEquals(new int[0], search("acel"));
+        assertArrayEquals(new int[]{6}, search("cell"));
+    }
+
+    @Test
+    public void everyTermMustMatch() {
+        assertArrayEquals(new int[]{3}, search("neck set"));
+        assertArrayEquals(new int[]{1}, search("royal, necklace"));
+        assertArrayEquals(new int[0], search("royal bangle"));
+    }
+
+    @Test
+    public void shortTermsMatchWordPrefixes() {
+        assertArrayEquals(new int[]{1, 3, 4, 5}, search("n"));
+        assertArrayEquals(new int[]{1, 3}, search("ne"));
+        assertArrayEquals(new int[]{4}, search("no"));
+        assertArrayEquals(new int[]{2}, search("ba"));
+        // Inside a word, not at its start
+        assertArrayEquals(new int[0], search("ng"));
+        assertArrayEquals(new int[]{4}, search("n pi"));
+    }
+
+    @Test
+    public void attributeChangeKeepsTheSlot() {
+        int slots = index.getSlotCount();
+        index.catalogChanged(Collections.singletonList(item(2, "Temple Bangle", 18, 12_000, 0)),
+                Collections.emptyList());
+
+        assertEquals(slots, index.getSlotCount());
+        assertArrayEquals(new int[0], index.search(CatalogQuery.ALL.withText("bangle").withAvailableOnly(true)));
+        assertArrayEquals(new int[]{2}, index.search(CatalogQuery.ALL.withText("bangle").withPurity(18)));
+    }
+
+    @Test
+    public void renameTakesANewSlot() {
+        int slots = index.getSlotCount();
+        index.catalogChanged(Collections.singletonList(item(2, "Kada Bracelet", 22, 12_000, 5)),
+                Collections.emptyList());
+
+        assertEquals(slots + 1, index.getSlotCount());
+        assertArrayEquals(new int[0], search("bangle"));
+        assertArrayEquals(new int[]{2}, search("brace"));
+        assertArrayEquals(new int[]{2}, search("ka"));
+        assertArrayEquals(new int[]{1, 2, 3, 4, 5}, index.search(CatalogQuery.ALL));
+    }
+
+    @Test
+    public void removedItemsDisappear() {
+        index.catalogChanged(Collections.emptyList(), Collections.singletonList(3));
+
+        assertArrayEquals(new int[]{1}, search("necklace"));
+        assertArrayEquals(new int[]{1, 2, 4, 5}, index.search(CatalogQuery.ALL));
+    }
+
+    @Test
+    public void deadSlotsAreCompactedAway() {
+        // Compaction runs once dead slots outnumber both live ones and the initial capacity of 1024
+        for (int rename = 0; rename <= 1024; rename++) {
+            index.catalogChanged(Collections.singletonList(item(5, "Ring " + rename, 24, 8_000, 2)),
+                    Collections.emptyList());
+        }
+
+        assertEquals(5, index.getSlotCount());
+        assertArrayEquals(new int[]{5}, search("1024"));
+        assertArrayEquals(new int[0], search("1023"));
+        assertArrayEquals(new int[]{1, 3}, search("neck"));
+        assertArrayEquals(new int[]{2}, index.search(CatalogQuery.ALL.withText("bangle").withPurity(22)
+                .withWeightBetween(Weight.ofMilligrams(10_000), Weight.ofMilligrams(15_000))));
+
+        // Postings stay sorted after the compaction, so later changes still intersect correctly
+        index.catalogChanged(Collections.singletonList(item(7, "Royal Set", 22, 30_000, 1)), Collections.emptyList());
+        assertArrayEquals(new int[]{3, 7}, search("set"));
+        assertArrayEquals(new int[]{7}, search("royal set"));
+    }
+
+    @Test
+    public void facetCountsLeaveOutTheirOwnFilter() {
+        CatalogQuery query = CatalogQuery.ALL.withPurity(22);
+        CatalogSearchResult result = index.query(query);
+
+        assertArrayEquals(new int[]{1, 2}, result.getItemIds());
+        CatalogFacets facets = result.getFacets();
+        // Purity counts ignore the purity filter, so the other karats can still be picked
+        assertEquals(2, facets.getPurityCount(22));
+        assertEquals(2, facets.getPurityCount(18));
+        assertEquals(1, facets.getPurityCount(24));
+        assertEquals(Arrays.asList(24, 22, 18), facets.getPurities());
+        // Weight counts do apply it: 25 g and 12 g
+        assertEquals(1, facets.getWeightCount(CatalogFacets.weightBand(12_000)));
+        assertEquals(1, facets.getWeightCount(CatalogFacets.weightBand(25_000)));
+        assertEquals(0, facets.getWeightCount(CatalogFacets.weightBand(1_500)));
+    }
+
+    @Test
+    public void weightBandFilterNarrowsTheOtherFacets() {
+        int band = CatalogFacets.weightBand(12_000); // 10 to 20 g
+        CatalogSearchResult result = index.query(CatalogFacets.withWeightBand(CatalogQuery.ALL, band));
+
+        assertArrayEquals(new int[]{2}, result.getItemIds());
+        CatalogFacets facets = result.getFacets();
+        assertEquals(1, facets.getPurityCount(22));
+        assertEquals(0, facets.getPurityCount(18));
+        // Weight counts ignore the weight filter
+        assertEquals(1, facets.getWeightCount(CatalogFacets.weightBand(1_500)));
+        assertEquals(1, facets.getWeightCount(band));
+        assertEquals(1, facets.getWeightCount(CatalogFacets.weightBand(25_000)));
+        assertEquals(1, facets.getWeightCount(CatalogFacets.weightBand(60_000)));
+    }
+
+    @Test
+    public void textAndStockFiltersApplyToEveryFacet() {
+        CatalogSearchResult result = index.query(CatalogQuery.ALL.withText("n").withAvailableOnly(true));
+
+        assertArrayEquals(new int[]{1, 3, 5}, result.getItemIds());
+        CatalogFacets facets = result.getFacets();
+        assertEquals(1, facets.getPurityCount(22));
+        assertEquals(1, facets.getPurityCount(18));
+        assertEquals(0, facets.getWeightCount(CatalogFacets.weightBand(1_500)));
+        int priceTotal = 0;
+        for (int band = 0; band < CatalogFacets.PRICE_BANDS; band++) {
+            priceTotal += facets.getPriceCount(band);
+        }
+        assertEquals(3, priceTotal);
+    }
+
+    @Test
+    public void matchesABruteForceScan() {
+        List<GoldItem> items = new ArrayList<>();
+        String[] words = {"royal", "temple", "necklace", "bangle", "ring", "chain", "kada", "set", "antique"};
+        for (int id = 1; id <= 500; id++) {
+            String name = words[id % words.length] + " " + words[(id * 7) % words.length] + " " + id;
+            items.add(item(id, name, 18 + (id % 4) * 2, 1_000 + id * 150, id % 3));
+        }
+        index.build(items);
+        String[] queries = {"a", "ch", "ang", "lace", "ring 1", "k set", "tiq", "nec ban", "12"};
+        for (String text : queries) {
+            CatalogQuery query = CatalogQuery.ALL.withText(text).withAvailableOnly(true);
+            List<Integer> expected = new ArrayList<>();
+            for (GoldItem item : items) {
+                if (item.getQuantity() > 0 && matches(item.getName(), text)) expected.add(item.getItemId());
+            }
+            assertEquals(text, expected, toList(index.search(query)));
+        }
+    }
+
+    private int[] search(String text) {
+        return index.search(CatalogQuery.ALL.withText(text));
+    }
+
+    private static boolean matches(String name, String text) {
+        String[] nameWords = CatalogSearchIndex.terms(name);
+        for (String term : CatalogSearchIndex.terms(text)) {
+            boolean found = false;
+            for (String word : nameWords) {
+                if (term.length() >= 3 ? name.toLowerCase().contains(term) : word.startsWith(term)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+
+    private static List<Integer> toList(int[] ids) {
+        List<Integer> list = new ArrayList<>();
+        for (int id : ids) list.add(id);
+        return list;
+    }
+
+    private static GoldItem item(int itemId, String name, int purity, long milligrams, int quantity) {
+        Weight weight = Weight.ofMilligrams(milligrams);
+        Money pricePerGram = Money.ofPaise(6_000_00);
+        return new GoldItem(itemId, name, weight, purity, pricePerGram,
+                pricePerGram.timesWeight(weight, RoundingMode.HALF_UP), quantity, "available", 1);
+    }
+}
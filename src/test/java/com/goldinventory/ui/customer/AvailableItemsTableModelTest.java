@@ -0,0 +1,107 @@
+package com.goldinventory.ui.customer;
+
+import com.goldinventory.model.GoldItem;
+import com.goldinventory.model.Money;
+import com.goldinventory.model.Weight;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.swing.event.TableModelEvent;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AvailableItemsTableModelTest {
+    private AvailableItemsTableModel model;
+    private final List<TableModelEvent> events = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        model = new AvailableItemsTableModel();
+        model.setItems(Arrays.asList(item(1, 3), item(2, 5), item(3, 1), item(4, 2)));
+        model.addTableModelListener(events::add);
+    }
+
+    @Test
+    public void changedStockAndPriceArePatchedInPlace() {
+        assertTrue(model.applyChanges(changes(item(2, 4), item(3, 1))));
+
+        assertEquals(4, model.getRowCount());
+        assertEquals(4, model.getValueAt(1, 5));
+        assertEquals(1, events.size());
+        assertEquals(TableModelEvent.UPDATE, events.get(0).getType());
+        assertEquals(1, events.get(0).getFirstRow());
+        assertEquals(2, events.get(0).getLastRow());
+    }
+
+    @Test
+    public void soldOutRowsAreDeleted() {
+        model.setValueAt(2, 3, AvailableItemsTableModel.QTY_COLUMN);
+        events.clear();
+
+        assertTrue(model.applyChanges(changes(item(1, 0), item(3, 0), item(4, 1))));
+
+        assertEquals(2, model.getRowCount());
+        assertEquals(2, model.getItemId(0));
+        assertEquals(4, model.getItemId(1));
+        // Picked quantities moved with their rows, and were cut down to the stock left
+        assertEquals(1, model.getPickedQuantity(0));
+        assertEquals(1, model.getPickedQuantity(1));
+        assertEquals(TableModelEvent.DELETE, events.get(0).getType());
+        assertEquals(2, events.get(0).getFirstRow());
+        assertEquals(TableModelEvent.DELETE, events.get(1).getType());
+        assertEquals(0, events.get(1).getFirstRow());
+        assertEquals(TableModelEvent.UPDATE, events.get(2).getType());
+        assertEquals(1, events.get(2).getFirstRow());
+    }
+
+    @Test
+    public void everyRowCanSellOut() {
+        assertTrue(model.applyChanges(changes(item(1, 0), item(2, 0), item(3, 0), item(4, -1))));
+
+        assertEquals(0, model.getRowCount());
+        assertEquals(4, events.size());
+    }
+
+    @Test
+    public void itemsNotOnScreenAreIgnored() {
+        assertFalse(model.applyChanges(changes(item(9, 0), item(10, 7))));
+
+        assertEquals(4, model.getRowCount());
+        assertEquals(Collections.emptyList(), events);
+    }
+
+    @Test
+    public void rowsWithoutStockAreNotEditable() {
+        model.setItems(Arrays.asList(item(1, 0), item(2, 1)));
+
+        assertFalse(model.isCellEditable(0, AvailableItemsTableModel.QTY_COLUMN));
+        assertFalse(model.isCellEditable(0, AvailableItemsTableModel.ADD_COLUMN));
+        assertTrue(model.isCellEditable(1, AvailableItemsTableModel.QTY_COLUMN));
+        assertTrue(model.isCellEditable(1, AvailableItemsTableModel.ADD_COLUMN));
+        assertFalse(model.isCellEditable(1, 5));
+    }
+
+    private static Map<Integer, GoldItem> changes(GoldItem... items) {
+        Map<Integer, GoldItem> changed = new HashMap<>();
+        for (GoldItem item : items) {
+            changed.put(item.getItemId(), item);
+        }
+        return changed;
+    }
+
+    private static GoldItem item(int itemId, int quantity) {
+        Weight weight = Weight.ofMilligrams(10_000);
+        Money pricePerGram = Money.ofPaise(6_000_00);
+        return new GoldItem(itemId, "Ring " + itemId, weight, 22, pricePerGram,
+                pricePerGram.timesWeight(weight, RoundingMode.HALF_UP), quantity, "available", 1);
+    }
+}
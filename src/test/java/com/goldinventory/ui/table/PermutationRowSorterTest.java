@@ -0,0 +1,182 @@
+package com.goldinventory.ui.table;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+import javax.swing.event.RowSorterEvent;
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PermutationRowSorterTest {
+    private static final int ROWS = 100;
+
+    private KeyModel model;
+    private PermutationRowSorter<KeyModel> sorter;
+    private List<RowSorterEvent> events;
+
+    @Before
+    public void setUp() {
+        int[] keys = new int[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            keys[i] = (i * 37) % 7; // Many equal keys, out of order
+        }
+        model = new KeyModel(keys);
+        sorter = new PermutationRowSorter<>(model, (m, column) ->
+                column == 0 ? (a, b) -> Integer.compare(m.keys[a], m.keys[b]) : null);
+        events = new ArrayList<>();
+        sorter.addRowSorterListener(events::add);
+    }
+
+    @Test
+    public void ascendingSortIsStable() {
+        sorter.toggleSortOrder(0);
+
+        assertEquals(ROWS, sorter.getViewRowCount());
+        for (int view = 1; view < ROWS; view++) {
+            int previous = sorter.convertRowIndexToModel(view - 1);
+            int row = sorter.convertRowIndexToModel(view);
+            assertTrue(model.keys[previous] <= model.keys[row]);
+            if (model.keys[previous] == model.keys[row]) {
+                assertTrue("equal keys keep model order", previous < row);
+            }
+        }
+    }
+
+    @Test
+    public void secondToggleSortsDescending() {
+        sorter.toggleSortOrder(0);
+        int[] ascending = viewToModel();
+        sorter.toggleSortOrder(0);
+
+        assertEquals(SortOrder.DESCENDING, sorter.getSortKeys().get(0).getSortOrder());
+        int[] descending = viewToModel();
+        for (int view = 0; view < ROWS; view++) {
+            assertEquals(ascending[ROWS - 1 - view], descending[view]);
+        }
+        for (int view = 1; view < ROWS; view++) {
+            assertTrue(model.keys[descending[view - 1]] >= model.keys[descending[view]]);
+        }
+    }
+
+    @Test
+    public void unsortableColumnLeavesModelOrder() {
+        sorter.toggleSortOrder(1);
+
+        assertTrue(sorter.getSortKeys().isEmpty());
+        assertEquals(7, sorter.convertRowIndexToModel(7));
+    }
+
+    @Test
+    public void filterCombinesWithSortAndMapsBothWays() {
+        sorter.toggleSortOrder(0);
+        sorter.setRowFilter(row -> row % 2 == 0);
+
+        assertEquals(ROWS / 2, sorter.getViewRowCount());
+        for (int view = 0; view < sorter.getViewRowCount(); view++) {
+            int row = sorter.convertRowIndexToModel(view);
+            assertEquals(0, row % 2);
+            assertEquals(view, sorter.convertRowIndexToView(row));
+        }
+        for (int row = 1; row < ROWS; row += 2) {
+            assertEquals(-1, sorter.convertRowIndexToView(row));
+        }
+        assertEquals(-1, sorter.convertRowIndexToView(ROWS));
+    }
+
+    @Test
+    public void filterWithoutSortKeepsModelOrder() {
+        sorter.setRowFilter(row -> row >= 90);
+
+        assertEquals(10, sorter.getViewRowCount());
+        assertEquals(90, sorter.convertRowIndexToModel(0));
+        assertEquals(0, sorter.convertRowIndexToView(90));
+        assertEquals(-1, sorter.convertRowIndexToView(5));
+    }
+
+    @Test
+    public void rowsUpdatedResortsChangedKeys() {
+        sorter.toggleSortOrder(0);
+        model.keys[50] = -1;
+        sorter.rowsUpdated(50, 50);
+
+        assertEquals(50, sorter.convertRowIndexToModel(0));
+    }
+
+    @Test
+    public void rowsUpdatedInSortedColumnResorts() {
+        sorter.toggleSortOrder(0);
+        model.keys[3] = 100;
+        sorter.rowsUpdated(3, 3, 0);
+
+        assertEquals(3, sorter.convertRowIndexToModel(ROWS - 1));
+    }
+
+    @Test
+    public void modelStructureChangedClearsSortAndNotifies() {
+        sorter.toggleSortOrder(0);
+        events.clear();
+
+        sorter.modelStructureChanged();
+
+        assertTrue(sorter.getSortKeys().isEmpty());
+        assertEquals(RowSorterEvent.Type.SORT_ORDER_CHANGED, events.get(0).getType());
+        assertEquals(RowSorterEvent.Type.SORTED, events.get(events.size() - 1).getType());
+        assertEquals(12, sorter.convertRowIndexToModel(12));
+    }
+
+    @Test
+    public void modelStructureChangedWithoutSortOnlyResorts() {
+        sorter.modelStructureChanged();
+
+        assertEquals(1, events.size());
+        assertEquals(RowSorterEvent.Type.SORTED, events.get(0).getType());
+    }
+
+    @Test
+    public void settingTheSameKeyTwiceFiresOnce() {
+        List<RowSorter.SortKey> keys = Collections.singletonList(new RowSorter.SortKey(0, SortOrder.ASCENDING));
+        sorter.setSortKeys(keys);
+        int fired = events.size();
+        sorter.setSortKeys(keys);
+
+        assertEquals(fired, events.size());
+    }
+
+    private int[] viewToModel() {
+        int[] rows = new int[sorter.getViewRowCount()];
+        for (int view = 0; view < rows.length; view++) {
+            rows[view] = sorter.convertRowIndexToModel(view);
+        }
+        return rows;
+    }
+
+    private static class KeyModel extends AbstractTableModel {
+        final int[] keys;
+
+        KeyModel(int[] keys) {
+            this.keys = keys;
+        }
+
+        @Override
+        public int getRowCount() {
+            return keys.length;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return 2;
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            return column == 0 ? keys[row] : "row " + row;
+        }
+    }
+}